@@ -1,11 +1,14 @@
+import json
 from collections import Counter
 from fastapi import APIRouter, Depends, HTTPException, BackgroundTasks
+from fastapi.encoders import jsonable_encoder
+from fastapi.responses import StreamingResponse
 from sqlalchemy import select
 from sqlalchemy.ext.asyncio import AsyncSession
 from app.database import get_db
 from app.models.book_corpus import BookCorpus
 from app.services import book_ai_service
-from app.schemas import KeywordRequest, SingleBookRequest, AiSearchRequest, ReadingTagsRequest
+from app.schemas import KeywordRequest, SingleBookRequest, BatchEmbedRequest, AiSearchRequest, ReadingTagsRequest
 
 router = APIRouter()
 
@@ -33,6 +36,15 @@ async def embed_single_book(request: SingleBookRequest, background_tasks: Backgr
     return {"message": "Single book embedding process started in the background."}
 
 
+@router.post("/api/books/embed-batch")
+async def embed_book_batch(request: BatchEmbedRequest, db: AsyncSession = Depends(get_db)):
+    """
+    Embeds a batch of books and waits for the corpus commit.
+    Responds with the ISBNs that are now in the corpus and the ones that failed.
+    """
+    return await book_ai_service.embed_books_batch(request.books, db)
+
+
 @router.post("/api/ai/search")
 async def ai_search(request: AiSearchRequest, db: AsyncSession = Depends(get_db)):
     """
@@ -45,6 +57,25 @@ async def ai_search(request: AiSearchRequest, db: AsyncSession = Depends(get_db)
     return results
 
 
+@router.post("/api/ai/search/stream")
+async def ai_search_stream(request: AiSearchRequest, db: AsyncSession = Depends(get_db)):
+    """
+    Streams the natural language search as NDJSON: a "candidates" line (vector retrieval, before rerank)
+    followed by a "final" line (reranked). Errors after the stream has started are sent as an "error" line.
+    """
+    if not request.query:
+        raise HTTPException(status_code=400, detail="Search query cannot be empty.")
+
+    async def events():
+        try:
+            async for event in book_ai_service.search_by_natural_language_stream(request.query, db):
+                yield json.dumps(jsonable_encoder(event), ensure_ascii=False) + "\n"
+        except HTTPException as e:
+            yield json.dumps({"type": "error", "detail": e.detail}, ensure_ascii=False) + "\n"
+
+    return StreamingResponse(events(), media_type="application/x-ndjson")
+
+
 @router.post("/api/user/reading-tags")
 async def get_reading_tags(request: ReadingTagsRequest, db: AsyncSession = Depends(get_db)):
     """
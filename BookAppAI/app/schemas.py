@@ -12,6 +12,9 @@ class SingleBookRequest(BaseModel):
     publisher: Optional[str] = ""
     thumbnail: Optional[str] = ""
 
+class BatchEmbedRequest(BaseModel):
+    books: List[SingleBookRequest]
+
 class AiSearchRequest(BaseModel):
     query: str
 
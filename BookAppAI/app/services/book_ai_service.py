@@ -1,6 +1,6 @@
 import os
 import re
-from typing import List, Optional, Union
+from typing import AsyncIterator, List, Optional, Union
 
 import httpx
 import numpy as np
@@ -51,6 +51,8 @@ HYBRID_KEYWORD_LIMIT = int(os.getenv("HYBRID_KEYWORD_LIMIT", "15"))
 GEMINI_FAST_MODEL = os.getenv("GEMINI_FAST_MODEL", "gemini-2.0-flash-lite")
 GEMINI_DETAILED_MODEL = os.getenv("GEMINI_DETAILED_MODEL", "gemini-2.5-flash")
 RETAG_TRIGGER_SIZE = int(os.getenv("RETAG_TRIGGER_SIZE", "1"))
+EMBED_ENCODE_BATCH_SIZE = int(os.getenv("EMBED_ENCODE_BATCH_SIZE", "32"))
+EMBED_CLASSIFY_CONCURRENCY = int(os.getenv("EMBED_CLASSIFY_CONCURRENCY", "4"))
 
 # --- Hugging Face Model Loading ---
 # Check if GPU is available and use it, otherwise use CPU
@@ -183,6 +185,18 @@ async def get_embedding(text: str):
         return None
 
 
+async def get_embeddings(texts: List[str]) -> Optional[List[List[float]]]:
+    """Encodes several texts in one model call (batched on the device), off the event loop."""
+    try:
+        embeddings = await asyncio.to_thread(
+            embedding_model.encode, texts, batch_size=EMBED_ENCODE_BATCH_SIZE, convert_to_numpy=True
+        )
+        return [embedding.tolist() for embedding in embeddings]
+    except Exception as e:
+        print(f"Error getting embeddings for {len(texts)} texts - {e}")
+        return None
+
+
 KAKAO_TIMEOUT = httpx.Timeout(connect=3.0, read=8.0, write=3.0, pool=3.0)
 
 
@@ -419,7 +433,7 @@ async def embed_single_book(book_data: SingleBookRequest, db: AsyncSession):
         print(f"Book with ISBN {book_data.isbn} already exists in corpus. Skipping.")
         return
 
-    if await check_if_similar_in_corpus(db, book_data.title, book_data.authors):
+    if await check_if_similar_in_corpus(db, book_data.title, format_authors(book_data.authors)):
         print(f"[DEDUP] Skipping duplicate edition for single book: '{book_data.title}'")
         return
 
@@ -453,8 +467,93 @@ async def embed_single_book(book_data: SingleBookRequest, db: AsyncSession):
     print(f"Successfully saved single book to corpus: {book_data.title}")
 
 
+async def embed_books_batch(books: List[SingleBookRequest], db: AsyncSession) -> dict:
+    """
+    Embeds several books synchronously and saves them to the corpus in one commit.
+
+    Books already in the corpus (same ISBN or another edition) count as embedded.
+    Returns {"embedded": [isbn...], "failed": [isbn...]} so the caller can mark only the finished ones.
+    """
+    unique: dict[str, SingleBookRequest] = {}
+    for book in books:
+        unique.setdefault(book.isbn, book)
+    if not unique:
+        return {"embedded": [], "failed": []}
+
+    result = await db.execute(select(BookCorpus.isbn).filter(BookCorpus.isbn.in_(list(unique))))
+    existing = set(result.scalars().all())
+
+    embedded: List[str] = list(existing)
+    targets: List[SingleBookRequest] = []
+    for isbn, book in unique.items():
+        if isbn in existing:
+            continue
+        if await check_if_similar_in_corpus(db, book.title, format_authors(book.authors)):
+            print(f"[DEDUP] Skipping duplicate edition in batch: '{book.title}'")
+            embedded.append(isbn)
+            continue
+        targets.append(book)
+
+    if not targets:
+        return {"embedded": embedded, "failed": []}
+
+    book_embeddings = await get_embeddings(
+        [build_book_text(book.title, book.contents or "", book.authors) for book in targets]
+    )
+    if not book_embeddings:
+        return {"embedded": embedded, "failed": [book.isbn for book in targets]}
+
+    semaphore = asyncio.Semaphore(EMBED_CLASSIFY_CONCURRENCY)
+
+    async def classify(book: SingleBookRequest):
+        async with semaphore:
+            return await book_classifier_detailed.classify(
+                book.title,
+                book.contents or "",
+                format_authors(book.authors),
+            )
+
+    classifications = await asyncio.gather(*(classify(book) for book in targets))
+
+    for book, book_embedding, classification in zip(targets, book_embeddings, classifications):
+        if not classification.used_llm:
+            await tagging_retry_manager.record_fallback(book.isbn, "detailed_tagger_fallback")
+        keyword_value, tags = _merge_tags(classification.primary_keyword, classification.tags)
+        db.add(BookCorpus(
+            title=book.title,
+            contents=book.contents,
+            isbn=book.isbn,
+            authors=format_authors(book.authors),
+            publisher=book.publisher,
+            thumbnail=book.thumbnail,
+            keyword=keyword_value,
+            similarity_score=0.0,
+            embedding=book_embedding,
+            tags=tags,
+        ))
+        embedded.append(book.isbn)
+    await db.commit()
+    print(f"Saved {len(targets)} books to corpus in batch ({len(unique) - len(targets)} already present)")
+    return {"embedded": embedded, "failed": []}
+
+
 async def search_by_natural_language(query: str, db: AsyncSession):
     """Performs vector + hybrid keyword search with intent-aware prompts."""
+    search_results: list = []
+    async for event in search_by_natural_language_stream(query, db):
+        if event["type"] == "final":
+            search_results = event["results"]
+    return search_results
+
+
+async def search_by_natural_language_stream(query: str, db: AsyncSession) -> AsyncIterator[dict]:
+    """
+    Streaming variant of search_by_natural_language.
+
+    Yields {"type": "candidates", "results": [...]} as soon as vector retrieval and filtering finish
+    (vector-similarity order, before the Gemini rerank), then {"type": "final", "results": [...]}
+    with the same results search_by_natural_language returns.
+    """
     print(f"Performing AI search for query: {query}")
 
     intent = await intent_analyzer.analyze(query)
@@ -573,6 +672,9 @@ async def search_by_natural_language(query: str, db: AsyncSession):
     if len(filtered) < before_dedup:
         print(f"[DEDUP] Removed {before_dedup - len(filtered)} duplicate editions for query '{query}'.")
 
+    # 리랭크 전 벡터 유사도 순 후보를 먼저 내보낸다 (스트리밍 첫 결과)
+    yield {"type": "candidates", "results": filtered[:AI_SEARCH_RESULT_LIMIT]}
+
     # Re-ranking: Gemini로 Top N → 최적 5권 선별 + 추천 이유 생성
     search_results = await rerank_with_gemini(query, filtered)
 
@@ -631,4 +733,4 @@ async def search_by_natural_language(query: str, db: AsyncSession):
         similarity_text = f"{similarity:.3f}" if similarity is not None else "N/A"
         print(f"{i}. {r.get('title')} (sim: {similarity_text})")
 
-    return search_results
+    yield {"type": "final", "results": search_results}
@@ -0,0 +1,55 @@
+package bookapp.bookappback.common.ranking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CF / Content 두 순위 목록의 RRF 결합. 목록 길이는 추천 경로 기본값(20)과 그 배수.
+ *
+ *   ./gradlew jmh -PjmhIncludes=ReciprocalRankFusionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReciprocalRankFusionBenchmark {
+
+    @Param({"20", "200"})
+    public int listSize;
+
+    private List<Long> cfRanked;
+    private List<Long> contentRanked;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        cfRanked = new ArrayList<>(listSize);
+        contentRanked = new ArrayList<>(listSize);
+        // 절반 정도 겹치도록 id 범위를 목록 길이의 2배로 둔다
+        for (int i = 0; i < listSize; i++) {
+            cfRanked.add((long) random.nextInt(listSize * 2));
+            contentRanked.add((long) random.nextInt(listSize * 2));
+        }
+    }
+
+    @Benchmark
+    public List<Long> fuse() {
+        return ReciprocalRankFusion.fuse(60, 10, cfRanked, contentRanked);
+    }
+}
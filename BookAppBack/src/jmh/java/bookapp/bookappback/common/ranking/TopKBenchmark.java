@@ -0,0 +1,85 @@
+package bookapp.bookappback.common.ranking;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 상위 K 선택: 기존 방식(Map.Entry 전체 정렬) vs TopK 힙.
+ * 후보는 추천 경로와 같은 Map<Long, Double> 로 준비한다.
+ *
+ *   ./gradlew jmh -PjmhIncludes=TopKBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TopKBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int candidates;
+
+    @Param({"20"})
+    public int k;
+
+    private Map<Long, Double> scores;
+    private long[] ids;
+    private double[] values;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        scores = new HashMap<>(candidates * 2);
+        ids = new long[candidates];
+        values = new double[candidates];
+        for (int i = 0; i < candidates; i++) {
+            long id = random.nextLong(1, Long.MAX_VALUE);
+            double score = random.nextDouble();
+            scores.put(id, score);
+            ids[i] = id;
+            values[i] = score;
+        }
+    }
+
+    @Benchmark
+    public List<Long> sortedEntries() {
+        return scores.entrySet().stream()
+                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
+                .map(Map.Entry::getKey)
+                .limit(k)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public long[] topKFromMap() {
+        TopK topK = new TopK(k);
+        scores.forEach(topK::offer);
+        return topK.drainIds();
+    }
+
+    @Benchmark
+    public long[] topKFromArrays() {
+        TopK topK = new TopK(k);
+        for (int i = 0; i < ids.length; i++) {
+            topK.offer(ids[i], values[i]);
+        }
+        return topK.drainIds();
+    }
+}
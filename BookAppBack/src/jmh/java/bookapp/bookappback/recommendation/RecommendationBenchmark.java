@@ -0,0 +1,182 @@
+package bookapp.bookappback.recommendation;
+
+import bookapp.bookappback.ai.service.AiRecommendationService;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.BookIdResolver;
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.recommendation.dto.RecommendationResponse;
+import bookapp.bookappback.recommendation.repository.BookSimilarityRepository;
+import bookapp.bookappback.recommendation.service.RecommendationService;
+import bookapp.bookappback.user.entity.User;
+import bookapp.bookappback.user.repository.UserRepository;
+import bookapp.bookappback.user.service.UserAgeGroupCache;
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
+import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
+import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Neighbors;
+import bookapp.bookappback.userbookstatus.service.UserBookStatusService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 추천 엔진 CPU 경로 벤치마크.
+ *
+ * 합성 서재(users × books × density)를 실제 UserBookInteractionIndex 에 적재하고,
+ * 리포지토리와 FastAPI 는 고정 응답 스텁으로 대체한다 (네트워크/DB 시간은 포함되지 않음).
+ *
+ *   ./gradlew jmh -PjmhIncludes=RecommendationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    @Param({"10000", "100000"})
+    public int users;
+
+    @Param({"20000"})
+    public int books;
+
+    @Param({"0.001"})
+    public double density;
+
+    private UserBookInteractionIndex index;
+    private RecommendationService recommendationService;
+    private SplittableRandom random;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<UserBookInteractionRow> interactions = SyntheticLibraries.interactions(users, books, density, 42L);
+
+        // id 가 1..n 연속이므로 keyset 청크는 subList 로 잘라 준다
+        UserBookStatusRepository statusRepository = mock(UserBookStatusRepository.class);
+        when(statusRepository.findInteractionsAfter(anyLong(), anyCollection(), any(Limit.class))).thenAnswer(inv -> {
+            int from = (int) Math.max(0, Math.min(inv.<Long>getArgument(0), interactions.size()));
+            int to = Math.min(interactions.size(), from + inv.<Limit>getArgument(2).max());
+            return interactions.subList(from, to);
+        });
+        index = new UserBookInteractionIndex(statusRepository, new KeysetScanner(mock(EntityManager.class)));
+        index.rebuild();
+
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findAllBirthYears()).thenReturn(birthYears(users));
+        when(userRepository.findByEmail(anyString())).thenAnswer(inv -> Optional.of(userOf(inv.getArgument(0))));
+        UserAgeGroupCache ageGroupCache = new UserAgeGroupCache(userRepository);
+        ageGroupCache.reload();
+
+        // Content-based 는 고정된 ISBN 20개를 즉시 돌려준다
+        List<String> contentIsbns = new ArrayList<>();
+        for (long bookId = 1; bookId <= 20; bookId++) {
+            contentIsbns.add(SyntheticLibraries.isbnOf(bookId * 7));
+        }
+        AiRecommendationService aiRecommendationService = mock(AiRecommendationService.class);
+        when(aiRecommendationService.getContentRecommendationsAsync(any(), anyInt()))
+                .thenReturn(Mono.just(contentIsbns));
+
+        UserBookStatusService userBookStatusService = mock(UserBookStatusService.class);
+        when(userBookStatusService.getUserBooksWithIsbn(anyLong()))
+                .thenReturn(List.of(new UserBookIsbnDto(SyntheticLibraries.isbnOf(1), "COMPLETED")));
+
+        BookRepository bookRepository = mock(BookRepository.class);
+        when(bookRepository.findIdsByIsbn13In(anyCollection())).thenAnswer(inv -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (Object isbn : (Collection<?>) inv.getArgument(0)) {
+                rows.add(new Object[]{isbn, SyntheticLibraries.bookIdOf((String) isbn)});
+            }
+            return rows;
+        });
+
+        recommendationService = new RecommendationService(
+                userBookStatusService,
+                index,
+                aiRecommendationService,
+                userRepository,
+                ageGroupCache,
+                bookRepository,
+                new BookIdResolver(bookRepository),
+                mock(BookSimilarityRepository.class),
+                new SimpleMeterRegistry(),
+                new NoOpCacheManager()
+        );
+        setField(recommendationService, "cfMode", "user");
+        setField(recommendationService, "latencyBudgetMs", 1500L);
+
+        random = new SplittableRandom(7L);
+    }
+
+    private long nextUserId() {
+        // 서재가 비어 있는 유저는 인기 도서 경로로 빠지므로 서재가 있는 유저만 고른다
+        while (true) {
+            long userId = 1 + random.nextInt(users);
+            if (!index.getRow(userId).isEmpty()) return userId;
+        }
+    }
+
+    @Benchmark
+    public Neighbors scoreNeighbors() {
+        return index.scoreNeighbors(nextUserId());
+    }
+
+    @Benchmark
+    public RecommendationResponse getRecommendations() {
+        return recommendationService.getRecommendations("user" + nextUserId() + "@bench");
+    }
+
+    private static User userOf(String email) {
+        long userId = Long.parseLong(email.substring(4, email.indexOf('@')));
+        User user = new User();
+        user.setId(userId);
+        user.setEmail(email);
+        user.setBirthYear(1970 + (int) (userId % 40));
+        return user;
+    }
+
+    private static List<Object[]> birthYears(int users) {
+        List<Object[]> rows = new ArrayList<>(users);
+        for (long userId = 1; userId <= users; userId++) {
+            rows.add(new Object[]{userId, 1970 + (int) (userId % 40)});
+        }
+        return rows;
+    }
+
+    private static void setField(Object target, String name, Object value) throws ReflectiveOperationException {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+}
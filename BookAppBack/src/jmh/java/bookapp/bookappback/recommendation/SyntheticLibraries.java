@@ -0,0 +1,55 @@
+package bookapp.bookappback.recommendation;
+
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * 벤치마크용 합성 서재 데이터 (users × books × density).
+ *
+ * 유저당 평균 books × density 권을 가지며, 인기 편중을 흉내 내기 위해
+ * 도서 id 는 앞쪽(작은 id)에 몰리도록 뽑는다. 같은 seed 면 항상 같은 데이터.
+ * userId 는 1..users, bookId 는 1..books.
+ */
+final class SyntheticLibraries {
+
+    private static final ReadingStatus[] STATUSES = {
+            ReadingStatus.TO_READ, ReadingStatus.READING, ReadingStatus.COMPLETED
+    };
+
+    private SyntheticLibraries() {
+    }
+
+    /** findInteractionsAfter() 와 같은 (id, userId, bookId, status) 행 — id 는 1 부터 연속 */
+    static List<UserBookInteractionRow> interactions(int users, int books, double density, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int meanLibrary = Math.max(1, (int) Math.round(books * density));
+        List<UserBookInteractionRow> rows = new ArrayList<>(users * meanLibrary);
+        for (long userId = 1; userId <= users; userId++) {
+            int librarySize = 1 + random.nextInt(meanLibrary * 2);
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i < librarySize; i++) {
+                double r = random.nextDouble();
+                long bookId = 1 + (long) (books * r * r);
+                if (seen.add(bookId)) {
+                    rows.add(new UserBookInteractionRow(rows.size() + 1L, userId, bookId,
+                            STATUSES[random.nextInt(STATUSES.length)]));
+                }
+            }
+        }
+        return rows;
+    }
+
+    static String isbnOf(long bookId) {
+        return String.format("979%010d", bookId);
+    }
+
+    static long bookIdOf(String isbn) {
+        return Long.parseLong(isbn.substring(3));
+    }
+}
@@ -2,10 +2,13 @@ package bookapp.bookappback.ai.controller;
 
 import bookapp.bookappback.ai.service.AiSearchService;
 import bookapp.bookappback.ai.dto.AiSearchRequestDto;
+import bookapp.bookappback.ai.dto.AiSearchStreamEvent;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 
 import java.util.List;
 
@@ -21,4 +24,10 @@ public class AiSearchController {
         List<?> results = aiSearchService.search(requestDto);
         return ResponseEntity.ok(results);
     }
+
+    // 스트리밍(NDJSON): 리랭크 전 후보를 먼저 보내고, 리랭크가 끝나면 최종 결과를 한 줄 더 보낸다
+    @PostMapping(value = "/search/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<AiSearchStreamEvent> searchStream(@RequestBody @Valid AiSearchRequestDto requestDto) {
+        return aiSearchService.searchStream(requestDto);
+    }
 }
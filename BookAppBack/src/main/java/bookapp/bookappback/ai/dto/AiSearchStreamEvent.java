@@ -0,0 +1,44 @@
+package bookapp.bookappback.ai.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * AI 검색 스트리밍(NDJSON) 한 줄.
+ * type: candidates(리랭크 전 벡터 유사도 순 후보) → final(리랭크 완료, 일반 검색과 같은 결과) | error
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AiSearchStreamEvent {
+
+    public static final String CANDIDATES = "candidates";
+    public static final String FINAL = "final";
+    public static final String ERROR = "error";
+
+    private String type;
+    private List<?> results;
+    private String detail;
+
+    public static AiSearchStreamEvent finalResults(List<?> results) {
+        return new AiSearchStreamEvent(FINAL, results, null);
+    }
+
+    @JsonIgnore
+    public boolean isFinal() {
+        return FINAL.equals(type);
+    }
+
+    @JsonIgnore
+    public boolean isError() {
+        return ERROR.equals(type);
+    }
+}
@@ -1,15 +1,15 @@
 package bookapp.bookappback.ai.service;
 
 import bookapp.bookappback.ai.dto.ContentRecommendRequestDto;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
 import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
-import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.Collections;
@@ -29,16 +29,11 @@ public class AiRecommendationService {
     private final WebClient webClient;
 
     public AiRecommendationService(
-            WebClient.Builder webClientBuilder,
+            OutboundHttpClients outboundHttpClients,
             @Value("${ai.base-url}") String aiBaseUrl
     ) {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3_000)
-                .responseTimeout(Duration.ofSeconds(15));
-
-        this.webClient = webClientBuilder
+        this.webClient = outboundHttpClients.builder(Upstream.AI, Duration.ofSeconds(15))
                 .baseUrl(aiBaseUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
     }
 
@@ -48,22 +43,31 @@ public class AiRecommendationService {
      * @return 추천 ISBN 목록 (유사도 내림차순). 실패 시 빈 리스트.
      */
     public List<String> getContentRecommendations(List<UserBookIsbnDto> userBooks, int limit) {
+        List<String> result = getContentRecommendationsAsync(userBooks, limit).block();
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * 논블로킹 버전. 구독 시점에 요청이 나가며, 구독을 취소하면 진행 중인 HTTP 요청도 끊긴다.
+     * 호출 측에서 timeout 을 걸어 지연 예산을 강제할 수 있도록 timeout 자체는 걸지 않는다.
+     *
+     * @return 추천 ISBN 목록 (유사도 내림차순). 실패 시 빈 리스트를 발행.
+     */
+    public Mono<List<String>> getContentRecommendationsAsync(List<UserBookIsbnDto> userBooks, int limit) {
         if (userBooks == null || userBooks.isEmpty()) {
-            return Collections.emptyList();
+            return Mono.just(Collections.emptyList());
         }
 
         ContentRecommendRequestDto requestDto = new ContentRecommendRequestDto(userBooks, limit);
-        try {
-            List<String> result = webClient.post()
-                    .uri("/recommendations/content")
-                    .bodyValue(requestDto)
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
-                    .block();
-            return result != null ? result : Collections.emptyList();
-        } catch (Exception e) {
-            log.warn("Content-based 추천 FastAPI 호출 실패 — CF-only 폴백: {}", e.getMessage());
-            return Collections.emptyList();
-        }
+        return webClient.post()
+                .uri("/recommendations/content")
+                .bodyValue(requestDto)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<String>>() {})
+                .defaultIfEmpty(Collections.emptyList())
+                .onErrorResume(e -> {
+                    log.warn("Content-based 추천 FastAPI 호출 실패 — CF-only 폴백: {}", e.getMessage());
+                    return Mono.just(Collections.emptyList());
+                });
     }
 }
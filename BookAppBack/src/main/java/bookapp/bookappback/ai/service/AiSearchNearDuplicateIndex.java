@@ -0,0 +1,111 @@
+package bookapp.bookappback.ai.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 최근 AI 검색어 중 표현만 살짝 다른 질문을 찾아 같은 캐시 키로 묶는다.
+ *
+ * 정규화된 검색어(공백 제외)의 문자 bigram 집합 Jaccard 유사도가 threshold 이상이면
+ * 먼저 들어온 검색어를 대표 키로 돌려준다. ("스릴러 소설 추천해줘" ≈ "스릴러 소설 추천해 줘")
+ * 임베딩 비교가 아니므로 부정/반의어 차이는 구분하지 못한다 — 기본값은 꺼 두고 threshold 를 높게 잡는다.
+ *
+ * 최근 maxEntries 개만 LRU 로 유지하며, 조회는 전체 선형 스캔(수천 건 × bigram 수십 개)이다.
+ */
+@Component
+public class AiSearchNearDuplicateIndex {
+
+    private final boolean enabled;
+    private final double threshold;
+    private final int minBigrams;
+    private final int maxEntries;
+    private final Counter hits;
+
+    private final LinkedHashMap<String, Set<Integer>> recent;
+
+    public AiSearchNearDuplicateIndex(
+            @Value("${ai.search.near-duplicate.enabled:false}") boolean enabled,
+            @Value("${ai.search.near-duplicate.threshold:0.85}") double threshold,
+            @Value("${ai.search.near-duplicate.min-bigrams:4}") int minBigrams,
+            @Value("${ai.search.near-duplicate.max-entries:2000}") int maxEntries,
+            MeterRegistry meterRegistry
+    ) {
+        this.enabled = enabled;
+        this.threshold = threshold;
+        this.minBigrams = minBigrams;
+        this.maxEntries = maxEntries;
+        this.hits = meterRegistry.counter("ai.search.near_duplicate.hits");
+        this.recent = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * @param normalizedQuery SearchQueryNormalizer.normalizeText 결과
+     * @return 비슷한 최근 검색어가 있으면 그 검색어, 없으면 자기 자신 (인덱스에 등록)
+     */
+    public String canonicalOf(String normalizedQuery) {
+        if (!enabled) {
+            return normalizedQuery;
+        }
+        Set<Integer> bigrams = bigrams(normalizedQuery);
+        if (bigrams.size() < minBigrams) {
+            return normalizedQuery;
+        }
+
+        synchronized (recent) {
+            if (recent.get(normalizedQuery) != null) {
+                return normalizedQuery;
+            }
+            String best = null;
+            double bestScore = threshold;
+            for (Map.Entry<String, Set<Integer>> entry : recent.entrySet()) {
+                double score = jaccard(bigrams, entry.getValue());
+                if (score >= bestScore) {
+                    best = entry.getKey();
+                    bestScore = score;
+                }
+            }
+            if (best != null) {
+                recent.get(best); // LRU 갱신
+                hits.increment();
+                return best;
+            }
+
+            recent.put(normalizedQuery, bigrams);
+            if (recent.size() > maxEntries) {
+                Iterator<String> eldest = recent.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+            return normalizedQuery;
+        }
+    }
+
+    // 공백을 뺀 문자 bigram (두 char 를 int 하나로)
+    static Set<Integer> bigrams(String text) {
+        String compact = text.replace(" ", "");
+        Set<Integer> result = new HashSet<>();
+        for (int i = 0; i + 1 < compact.length(); i++) {
+            result.add((compact.charAt(i) << 16) | compact.charAt(i + 1));
+        }
+        return result;
+    }
+
+    static double jaccard(Set<Integer> a, Set<Integer> b) {
+        Set<Integer> small = a.size() <= b.size() ? a : b;
+        Set<Integer> large = small == a ? b : a;
+        int intersection = 0;
+        for (Integer bigram : small) {
+            if (large.contains(bigram)) intersection++;
+        }
+        int union = a.size() + b.size() - intersection;
+        return union == 0 ? 0 : (double) intersection / union;
+    }
+}
@@ -1,48 +1,131 @@
 package bookapp.bookappback.ai.service;
 
 import bookapp.bookappback.ai.dto.AiSearchRequestDto;
-import io.netty.channel.ChannelOption;
+import bookapp.bookappback.ai.dto.AiSearchStreamEvent;
+import bookapp.bookappback.book.service.SearchQueryNormalizer;
+import bookapp.bookappback.common.exception.AiExceptions;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import bookapp.bookappback.common.http.UpstreamGuard;
+import bookapp.bookappback.common.http.UpstreamRejectedException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.List;
+import java.util.function.Supplier;
 
 @Service
 @Slf4j
 public class AiSearchService {
 
+    private static final String CACHE_NAME = "aiSearchCache";
+
     private final WebClient webClient;
+    private final WebClient streamWebClient;
+    private final UpstreamGuard aiGuard;
+    private final CacheManager cacheManager;
+    private final AiSearchNearDuplicateIndex nearDuplicateIndex;
 
     public AiSearchService(
-            WebClient.Builder webClientBuilder,
+            OutboundHttpClients outboundHttpClients,
+            CacheManager cacheManager,
+            AiSearchNearDuplicateIndex nearDuplicateIndex,
             @Value("${ai.base-url}") String aiBaseUrl
     ) {
+        this.cacheManager = cacheManager;
+        this.nearDuplicateIndex = nearDuplicateIndex;
         // AI 서비스는 임베딩 연산이 있어 응답이 느릴 수 있으므로 30초로 설정
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3_000)
-                .responseTimeout(Duration.ofSeconds(30));
-
-        this.webClient = webClientBuilder
+        this.webClient = outboundHttpClients.builder(Upstream.AI, Duration.ofSeconds(30))
+                .baseUrl(aiBaseUrl)
+                .build();
+        // 스트리밍은 헤더가 작업 전에 오므로 필터 대신 본문 종료 시 정산하는 guardStream 으로 감싼다
+        this.streamWebClient = outboundHttpClients.unguardedBuilder(Upstream.AI, Duration.ofSeconds(30))
                 .baseUrl(aiBaseUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
+        this.aiGuard = outboundHttpClients.guard(Upstream.AI);
     }
 
+    /**
+     * 정규화한 검색어(+ 설정 시 유사 검색어 대표 키)로 aiSearchCache 를 먼저 본다.
+     * 미스면 FastAPI 를 호출하고, 같은 검색어의 동시 미스는 한 번만 호출한다 (TwoTierCache single-flight).
+     */
     public List<?> search(AiSearchRequestDto requestDto) {
-        log.info("Sending AI search request to FastAPI with query: {}", requestDto.getQuery());
+        String query = nearDuplicateIndex.canonicalOf(SearchQueryNormalizer.normalizeText(requestDto.getQuery()));
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        if (cache == null) {
+            return fetch(query);
+        }
+        try {
+            return cache.get(query, () -> fetch(query));
+        } catch (Cache.ValueRetrievalException e) {
+            // 적재 중 예외(503 AI_UNAVAILABLE 등)는 그대로 전달
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 스트리밍 검색. FastAPI /api/ai/search/stream 의 NDJSON 이벤트를 받는 대로 넘긴다
+     * (candidates: 리랭크 전 후보 → final: 리랭크 결과).
+     * 캐시에 결과가 있으면 final 한 건만 바로 보내고, 새로 받은 final 은 aiSearchCache 에 채운다.
+     * AI 가드(서킷 브레이커/동시성 제한)는 헤더가 아니라 본문 스트림 종료 시점에 정산한다.
+     */
+    public Flux<AiSearchStreamEvent> searchStream(AiSearchRequestDto requestDto) {
+        String query = nearDuplicateIndex.canonicalOf(SearchQueryNormalizer.normalizeText(requestDto.getQuery()));
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        List<?> cached = cache != null ? cache.get(query, List.class) : null;
+        if (cached != null) {
+            return Flux.just(AiSearchStreamEvent.finalResults(cached));
+        }
+
+        log.info("Sending AI stream search request to FastAPI with query: {}", query);
+        Supplier<Flux<AiSearchStreamEvent>> call = () -> streamWebClient.post()
+                .uri("/api/ai/search/stream")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .bodyValue(new AiSearchRequestDto(query))
+                .retrieve()
+                .bodyToFlux(AiSearchStreamEvent.class);
+        // AI 가드는 스트림이 끝날 때까지 슬롯을 잡고, error 이벤트는 실패로 센다
+        Flux<AiSearchStreamEvent> events = aiGuard != null
+                ? aiGuard.guardStream(call, AiSearchStreamEvent::isError)
+                : Flux.defer(call);
+        return events
+                .doOnNext(event -> {
+                    if (cache != null && event.isFinal() && event.getResults() != null) {
+                        // Redis 쓰기는 블로킹이므로 이벤트 루프 밖에서, 응답은 기다리지 않는다
+                        Mono.fromRunnable(() -> cache.put(query, event.getResults()))
+                                .subscribeOn(Schedulers.boundedElastic())
+                                .subscribe(null, e -> log.warn("AI 검색 결과 캐시 저장 실패 [query={}]: {}", query, e.getMessage()));
+                    }
+                })
+                .onErrorMap(UpstreamRejectedException.class, e -> new AiExceptions.AiUnavailableException());
+    }
+
+    private List<?> fetch(String query) {
+        log.info("Sending AI search request to FastAPI with query: {}", query);
         try {
             return webClient.post()
                     .uri("/api/ai/search")
-                    .bodyValue(requestDto)
+                    .bodyValue(new AiSearchRequestDto(query))
                     .retrieve()
                     .bodyToMono(new ParameterizedTypeReference<List<?>>() {})
                     .block();
+        } catch (UpstreamRejectedException e) {
+            // 서킷 OPEN / 동시성 상한 — FastAPI 를 기다리지 않고 바로 503
+            log.warn("FastAPI AI search 거절: {}", e.getMessage());
+            throw new AiExceptions.AiUnavailableException();
         } catch (Exception e) {
             log.error("FastAPI AI search 호출 실패: {}", e.getMessage());
             throw new RuntimeException("AI search failed", e);
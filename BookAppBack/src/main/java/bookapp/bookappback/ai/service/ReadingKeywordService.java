@@ -1,16 +1,15 @@
 package bookapp.bookappback.ai.service;
 
 import bookapp.bookappback.ai.dto.ReadingTagsRequestDto;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
 import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
 import bookapp.bookappback.userbookstatus.service.UserBookStatusService;
-import io.netty.channel.ChannelOption;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
 import java.util.Collections;
@@ -26,17 +25,12 @@ public class ReadingKeywordService {
     private final UserBookStatusService userBookStatusService;
 
     public ReadingKeywordService(
-            WebClient.Builder webClientBuilder,
+            OutboundHttpClients outboundHttpClients,
             @Value("${ai.base-url}") String aiBaseUrl,
             UserBookStatusService userBookStatusService
     ) {
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3_000)
-                .responseTimeout(Duration.ofSeconds(15));
-
-        this.webClient = webClientBuilder
+        this.webClient = outboundHttpClients.builder(Upstream.AI, Duration.ofSeconds(15))
                 .baseUrl(aiBaseUrl)
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
                 .build();
 
         this.userBookStatusService = userBookStatusService;
@@ -14,6 +14,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.HashMap;
 import java.util.List;
@@ -46,6 +47,21 @@ public class BookController {
         return ResponseEntity.ok(response);
     }
 
+    // ✅ 논블로킹 검색 — 파라미터/응답은 /search 와 같다. Mono 를 반환하므로 Redis/Kakao 응답을 기다리는 동안
+    // Tomcat 요청 스레드가 풀로 돌아가고(서블릿 async), 동시 검색 수가 스레드 풀 크기에 묶이지 않는다
+    @GetMapping("/search/reactive")
+    @Operation(summary = "책 검색(논블로킹)", description = "/api/books/search 와 같은 결과를 요청 스레드를 점유하지 않고 반환한다.")
+    public Mono<ResponseEntity<KakaoBookSearchResponse>> searchBooksReactive(
+            @RequestParam @NotBlank(message = "검색어를 입력해주세요") @Size(max = 100, message = "검색어는 100자를 초과할 수 없습니다") String query,
+            @RequestParam(defaultValue = "1") @Min(1) int page,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(50) int size,
+            @RequestParam(defaultValue = "accuracy") String sort,
+            @RequestParam(required = false) String target
+    ) {
+        return bookService.searchBooksFromKakaoReactive(query, page, size, sort, target)
+                .map(ResponseEntity::ok);
+    }
+
     // ✅ ISBN으로 특정 책 상세 정보 조회
     @GetMapping("/detail/{isbn}")
     public ResponseEntity<Book> getBookDetail(@PathVariable String isbn) {
@@ -74,7 +90,7 @@ public class BookController {
             @RequestParam(required = false) Integer ageGroup) {
         int group = ageGroup != null ? ageGroup : 0;
         List<LibraryBookDto> books = popularNaruBookRepository
-                .findByAgeGroupOrderByRankingAsc(group)
+                .findActiveByAgeGroup(group)
                 .stream()
                 .map(e -> e.toDto())
                 .collect(Collectors.toList());
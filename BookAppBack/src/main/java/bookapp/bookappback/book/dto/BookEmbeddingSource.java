@@ -0,0 +1,11 @@
+package bookapp.bookappback.book.dto;
+
+// 임베딩 요청에 필요한 도서 컬럼만 읽는 projection (엔티티/리뷰 컬렉션을 만들지 않는다)
+public record BookEmbeddingSource(Long id,
+                                  String isbn13,
+                                  String title,
+                                  String contents,
+                                  String authors,
+                                  String publisher,
+                                  String thumbnail) {
+}
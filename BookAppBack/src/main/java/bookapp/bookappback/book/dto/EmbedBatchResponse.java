@@ -0,0 +1,21 @@
+package bookapp.bookappback.book.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// FastAPI /api/books/embed-batch 응답 — corpus 에 들어간 ISBN 과 실패한 ISBN
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class EmbedBatchResponse {
+
+    private List<String> embedded = new ArrayList<>();
+
+    private List<String> failed = new ArrayList<>();
+}
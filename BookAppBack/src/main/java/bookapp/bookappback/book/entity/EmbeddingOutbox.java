@@ -0,0 +1,45 @@
+package bookapp.bookappback.book.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 임베딩 대기 작업 (transactional outbox).
+ * 도서 INSERT 와 같은 트랜잭션에서 기록되고, 워커가 lease 를 잡고 가져가 처리한 뒤 지운다.
+ * 읽기/쓰기는 EmbeddingOutboxService 가 JDBC 로 한다 (FOR UPDATE SKIP LOCKED 클레임).
+ */
+@Entity
+@Table(name = "embedding_outbox",
+        indexes = @Index(name = "idx_embedding_outbox_available_at", columnList = "available_at"))
+@Getter
+@NoArgsConstructor
+public class EmbeddingOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "isbn13", unique = true, nullable = false)
+    private String isbn13;
+
+    /** 클레임 횟수 (재시도 backoff 계산용) */
+    @Column(nullable = false)
+    private int attempts;
+
+    /** 이 시각 이후에 클레임 가능 (실패 시 backoff 만큼 미룬다) */
+    @Column(name = "available_at", nullable = false)
+    private LocalDateTime availableAt;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    /** lease 만료 시각. 워커가 죽으면 지난 뒤 다른 워커가 다시 가져간다 */
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -53,6 +53,10 @@ public class PopularNaruBook {
     @Column(nullable = false)
     private LocalDateTime fetchedAt;
 
+    /** 이 행이 속한 스냅샷 버전 (PopularNaruSnapshot.activeVersion 과 같을 때만 조회된다) */
+    @Column(name = "snapshot_version", nullable = false, columnDefinition = "bigint default 0")
+    private long snapshotVersion;
+
     public LibraryBookDto toDto() {
         return new LibraryBookDto(
                 String.valueOf(ranking),
@@ -0,0 +1,35 @@
+package bookapp.bookappback.book.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 정보나루 인기 도서 스냅샷 포인터 (id=1 한 행).
+ * 조회는 popular_naru_books 중 snapshot_version = active_version 인 행만 읽는다.
+ * 쓰기는 PopularNaruSnapshotService 가 JDBC 로 한다.
+ */
+@Entity
+@Table(name = "popular_naru_snapshot")
+@Getter
+@NoArgsConstructor
+public class PopularNaruSnapshot {
+
+    public static final int POINTER_ID = 1;
+
+    @Id
+    private Integer id;
+
+    /** 읽기 대상 버전 */
+    @Column(name = "active_version", nullable = false)
+    private long activeVersion;
+
+    /** 마지막으로 발급한 버전 (갱신마다 +1) */
+    @Column(name = "next_version", nullable = false)
+    private long nextVersion;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+}
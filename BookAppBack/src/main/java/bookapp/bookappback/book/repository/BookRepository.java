@@ -1,6 +1,8 @@
 package bookapp.bookappback.book.repository;
 
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
 import bookapp.bookappback.book.entity.Book;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,6 +20,10 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // ISBN13 조회
     Optional<Book> findByIsbn13(String isbn13);
 
+    // ISBN13 목록 → (isbn13, id) 일괄 조회 (BookIdResolver 캐시 미스용)
+    @Query("SELECT b.isbn13, b.id FROM Book b WHERE b.isbn13 IN :isbns")
+    List<Object[]> findIdsByIsbn13In(@Param("isbns") Collection<String> isbns);
+
     List<Book> findByGroupTitle(String groupTitle);
 
     // ISBN10 조회
@@ -28,8 +35,17 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     // 저자 이름 포함 검색
     List<Book> findByAuthorsContaining(String author);
 
-    // AI 임베딩이 완료되지 않은 책 조회 (재시도 스케줄러용)
-    List<Book> findAllByEmbeddedFalse();
+    // AI 임베딩이 완료되지 않은 책 — id keyset 청크 (재시도 스케줄러용, KeysetScanner)
+    @Query("SELECT new bookapp.bookappback.book.dto.BookEmbeddingSource(" +
+            "b.id, b.isbn13, b.title, b.contents, b.authors, b.publisher, b.thumbnail) " +
+            "FROM Book b WHERE b.embedded = false AND b.id > :afterId ORDER BY b.id")
+    List<BookEmbeddingSource> findPendingEmbeddingSources(@Param("afterId") long afterId, Limit limit);
+
+    // ISBN13 목록 → 임베딩 요청용 컬럼 (임베딩 outbox 워커용)
+    @Query("SELECT new bookapp.bookappback.book.dto.BookEmbeddingSource(" +
+            "b.id, b.isbn13, b.title, b.contents, b.authors, b.publisher, b.thumbnail) " +
+            "FROM Book b WHERE b.isbn13 IN :isbns")
+    List<BookEmbeddingSource> findEmbeddingSourcesByIsbn13In(@Param("isbns") Collection<String> isbns);
 
     // 최근 등록된 N권 조회 (인기 도서 폴백용)
     @Query(value = "SELECT * FROM books ORDER BY created_at DESC LIMIT :limit", nativeQuery = true)
@@ -40,4 +56,10 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     @Transactional
     @Query("UPDATE Book b SET b.embedded = true WHERE b.isbn13 = :isbn13")
     void markAsEmbedded(@Param("isbn13") String isbn13);
+
+    // 배치 임베딩 결과를 한 번의 UPDATE 로 반영
+    @Modifying
+    @Transactional
+    @Query("UPDATE Book b SET b.embedded = true WHERE b.isbn13 IN :isbns")
+    int markAllAsEmbedded(@Param("isbns") Collection<String> isbns);
 }
\ No newline at end of file
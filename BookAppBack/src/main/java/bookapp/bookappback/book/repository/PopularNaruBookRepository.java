@@ -2,16 +2,21 @@ package bookapp.bookappback.book.repository;
 
 import bookapp.bookappback.book.entity.PopularNaruBook;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Repository
 public interface PopularNaruBookRepository extends JpaRepository<PopularNaruBook, Long> {
 
-    List<PopularNaruBook> findByAgeGroupOrderByRankingAsc(Integer ageGroup);
+    // 현재 스냅샷의 나이대별 순위 — 포인터와 행을 한 쿼리에서 읽어 교체 중에도 한 버전만 보인다
+    @Query("SELECT p FROM PopularNaruBook p WHERE p.ageGroup = :ageGroup AND p.snapshotVersion = " +
+            "(SELECT s.activeVersion FROM PopularNaruSnapshot s WHERE s.id = 1) ORDER BY p.ranking ASC")
+    List<PopularNaruBook> findActiveByAgeGroup(@Param("ageGroup") Integer ageGroup);
 
-    @Transactional
-    void deleteByAgeGroup(Integer ageGroup);
+    @Query("SELECT COUNT(p) FROM PopularNaruBook p WHERE p.snapshotVersion = " +
+            "(SELECT s.activeVersion FROM PopularNaruSnapshot s WHERE s.id = 1)")
+    long countActive();
 }
@@ -0,0 +1,102 @@
+package bookapp.bookappback.book.scheduler;
+
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.BookEmbeddingPipeline;
+import bookapp.bookappback.book.service.EmbeddingOutboxService;
+import bookapp.bookappback.book.service.EmbeddingOutboxService.Claimed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 임베딩 outbox 를 짧은 주기로 비우는 워커.
+ * 새 도서는 저장 후 수 초 안에 임베딩되고, 10분 주기 EmbeddingRetryScheduler 스캔은 안전망으로 남는다.
+ *
+ * 인스턴스마다 한 배치씩 클레임해 처리하며, SKIP LOCKED + lease 덕분에 여러 인스턴스가 겹치지 않고 나눠 가져간다.
+ */
+@Slf4j
+@Component
+public class EmbeddingOutboxWorker {
+
+    private final EmbeddingOutboxService outboxService;
+    private final BookEmbeddingPipeline embeddingPipeline;
+    private final BookRepository bookRepository;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration lease;
+    private final int maxAttempts;
+
+    public EmbeddingOutboxWorker(
+            EmbeddingOutboxService outboxService,
+            BookEmbeddingPipeline embeddingPipeline,
+            BookRepository bookRepository,
+            @Value("${ai.embedding.outbox.enabled:true}") boolean enabled,
+            @Value("${ai.embedding.batch-size:32}") int batchSize,
+            @Value("${ai.embedding.outbox.lease:5m}") Duration lease,
+            @Value("${ai.embedding.outbox.max-attempts:8}") int maxAttempts
+    ) {
+        this.outboxService = outboxService;
+        this.embeddingPipeline = embeddingPipeline;
+        this.bookRepository = bookRepository;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.lease = lease;
+        this.maxAttempts = maxAttempts;
+    }
+
+    // 가득 찬 배치가 나오는 동안 계속 비우고, 비면 다음 주기까지 쉰다
+    @Scheduled(fixedDelayString = "${ai.embedding.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        if (!enabled) return;
+        try {
+            while (embeddingPipeline.isAvailable()) {
+                List<Claimed> claimed = outboxService.claim(owner, batchSize, lease);
+                if (claimed.isEmpty()) return;
+                process(claimed);
+                if (claimed.size() < batchSize) return;
+            }
+        } catch (Exception e) {
+            log.error("임베딩 outbox 처리 실패: {}", e.getMessage());
+        }
+    }
+
+    void process(List<Claimed> claimed) {
+        List<BookEmbeddingSource> books = bookRepository.findEmbeddingSourcesByIsbn13In(claimed.stream().map(Claimed::isbn13).toList());
+        Set<String> existing = books.stream().map(BookEmbeddingSource::isbn13).collect(Collectors.toSet());
+
+        Set<String> embedded = new HashSet<>();
+        try {
+            embedded.addAll(embeddingPipeline.embedBatch(books));
+        } catch (Exception e) {
+            log.warn("임베딩 outbox 배치 실패 ({}건): {} — backoff 후 재시도", claimed.size(), e.getMessage());
+        }
+
+        // 임베딩됐거나 도서가 지워진 행은 완료, 나머지는 backoff
+        List<Long> done = new ArrayList<>();
+        List<Long> retry = new ArrayList<>();
+        for (Claimed row : claimed) {
+            if (embedded.contains(row.isbn13()) || !existing.contains(row.isbn13())) {
+                done.add(row.id());
+            } else {
+                retry.add(row.id());
+            }
+        }
+        outboxService.complete(owner, done);
+        int dropped = outboxService.retryLater(owner, retry, maxAttempts, Duration.ofSeconds(5), Duration.ofMinutes(10));
+        if (dropped > 0) {
+            log.warn("임베딩 outbox {}건 재시도 {}회 초과 — 정기 재시도 스캔으로 넘깁니다", dropped, maxAttempts);
+        }
+    }
+}
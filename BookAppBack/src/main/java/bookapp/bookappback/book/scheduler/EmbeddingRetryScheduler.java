@@ -1,36 +1,56 @@
 package bookapp.bookappback.book.scheduler;
 
-import bookapp.bookappback.book.entity.Book;
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
 import bookapp.bookappback.book.repository.BookRepository;
-import bookapp.bookappback.book.service.BookService;
+import bookapp.bookappback.book.service.BookEmbeddingPipeline;
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * embedded=false인 책을 주기적으로 재시도하는 스케줄러.
  * AI 서비스 다운 등으로 임베딩에 실패한 책을 복구한다.
+ * 새 도서는 EmbeddingOutboxWorker 가 수 초 안에 처리하고, 이 스캔은 outbox 재시도를 다 쓴 책 등을 줍는 안전망이다.
+ * 장애 뒤 쌓인 대기분이 FastAPI 로 한꺼번에 몰리지 않도록 배치 + 동시성 제한 파이프라인으로 보낸다.
+ * 대기분은 SCAN_CHUNK_SIZE 권씩 keyset 스캔으로 읽어, 대기 도서 수와 상관없이 한 번에 청크 하나만 메모리에 둔다.
+ * 여러 인스턴스 중 클러스터 락을 잡은 한 곳에서만 돈다 (새 도서 outbox 는 인스턴스들이 SKIP LOCKED 로 나눠 처리).
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class EmbeddingRetryScheduler {
 
+    private static final int SCAN_CHUNK_SIZE = 500;
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(5);
+
     private final BookRepository bookRepository;
-    private final BookService bookService;
+    private final BookEmbeddingPipeline embeddingPipeline;
+    private final KeysetScanner keysetScanner;
+    private final ClusterJobLock clusterJobLock;
 
     // 10분마다 실행
     @Scheduled(fixedDelay = 600_000)
     public void retryFailedEmbeddings() {
-        List<Book> pending = bookRepository.findAllByEmbeddedFalse();
-        if (pending.isEmpty()) return;
+        if (!embeddingPipeline.isAvailable()) return;
 
-        log.info("임베딩 재시도 대상: {}권", pending.size());
-        for (Book book : pending) {
-            bookService.triggerSingleBookEmbedding(book);
-        }
+        clusterJobLock.runExclusive("embedding-retry", LOCK_LEASE, lease -> {
+            AtomicInteger embedded = new AtomicInteger();
+            long scanned = keysetScanner.scan(SCAN_CHUNK_SIZE,
+                    bookRepository::findPendingEmbeddingSources,
+                    BookEmbeddingSource::id,
+                    chunk -> {
+                        lease.checkHeld();
+                        embedded.addAndGet(embeddingPipeline.embed(chunk).embedded());
+                    });
+            if (scanned > 0) {
+                log.info("임베딩 재시도: 대상 {}권, 성공 {}권", scanned, embedded.get());
+            }
+        });
     }
 }
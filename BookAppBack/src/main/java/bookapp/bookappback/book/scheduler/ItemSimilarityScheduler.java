@@ -0,0 +1,62 @@
+package bookapp.bookappback.book.scheduler;
+
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import bookapp.bookappback.recommendation.service.ItemSimilarityService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 아이템–아이템 유사도 모델(book_similarity)을 매일 새벽에 다시 계산하는 배치.
+ * recommendation.cf.mode=item 일 때 RecommendationService 가 이 모델을 사용한다.
+ * 테이블 전체를 교체하므로 여러 인스턴스 중 클러스터 락을 잡은 한 곳에서만 계산한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ItemSimilarityScheduler {
+
+    private static final String LOCK_JOB = "item-similarity-rebuild";
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(5);
+
+    private final ItemSimilarityService itemSimilarityService;
+    private final ClusterJobLock clusterJobLock;
+
+    @Value("${recommendation.cf.mode:user}")
+    private String cfMode;
+
+    /** item 모드인데 모델이 비어 있으면 기동 시 한 번 계산한다. */
+    @PostConstruct
+    public void initIfEmpty() {
+        if (!"item".equalsIgnoreCase(cfMode)) return;
+        try {
+            clusterJobLock.runExclusive(LOCK_JOB, LOCK_LEASE, lease -> {
+                if (itemSimilarityService.isModelEmpty()) {
+                    log.info("===== [ItemSimilarityScheduler] 모델 비어있음 → 즉시 계산 =====");
+                    itemSimilarityService.rebuildModel(lease);
+                }
+            });
+        } catch (Exception e) {
+            log.error("[ItemSimilarityScheduler] 초기 모델 계산 실패: {}", e.getMessage());
+        }
+    }
+
+    /** 매일 새벽 4시 30분 갱신 (item 모드일 때만 — user 모드에서는 읽는 곳이 없다) */
+    @Scheduled(cron = "${recommendation.item-cf.cron:0 30 4 * * *}")
+    public void nightlyRebuild() {
+        if (!"item".equalsIgnoreCase(cfMode)) return;
+        try {
+            clusterJobLock.runExclusive(LOCK_JOB, LOCK_LEASE, lease -> {
+                log.info("===== [ItemSimilarityScheduler] 아이템 유사도 모델 갱신 시작 =====");
+                itemSimilarityService.rebuildModel(lease);
+            });
+        } catch (Exception e) {
+            log.error("[ItemSimilarityScheduler] 모델 갱신 실패 — 이전 모델 유지: {}", e.getMessage());
+        }
+    }
+}
@@ -2,82 +2,137 @@ package bookapp.bookappback.book.scheduler;
 
 import bookapp.bookappback.book.dto.LibraryBookDto;
 import bookapp.bookappback.book.entity.PopularNaruBook;
-import bookapp.bookappback.book.repository.PopularNaruBookRepository;
 import bookapp.bookappback.book.service.LibraryApiService;
+import bookapp.bookappback.book.service.PopularNaruSnapshotService;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
 import jakarta.annotation.PostConstruct;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * 정보나루 나이대별 인기 도서 수집.
+ *
+ * 나이대를 fetch-concurrency 개씩 동시에 받아 모두 모은 뒤, 새 스냅샷 버전으로 한 번에 교체한다.
+ * 받지 못한 나이대는 이전 버전 데이터를 그대로 이어 받는다 (PopularNaruSnapshotService).
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class PopularNaruBookScheduler {
 
-    private static final int[] AGE_GROUPS = {0, 10, 20, 30, 40, 50, 60};
+    static final List<Integer> AGE_GROUPS = List.of(0, 10, 20, 30, 40, 50, 60);
+    // 인스턴스 여러 대가 동시에 정보나루를 호출하고 스냅샷을 겹쳐 발행하지 않도록 클러스터 락 아래에서만 돈다
+    private static final String LOCK_JOB = "naru-popular-refresh";
+    private static final Duration LOCK_LEASE = Duration.ofMinutes(5);
 
-    private final PopularNaruBookRepository popularNaruBookRepository;
     private final LibraryApiService libraryApiService;
+    private final PopularNaruSnapshotService snapshotService;
+    private final ClusterJobLock clusterJobLock;
+    private final int fetchConcurrency;
+    private final Duration fetchTimeout;
 
+    public PopularNaruBookScheduler(
+            LibraryApiService libraryApiService,
+            PopularNaruSnapshotService snapshotService,
+            ClusterJobLock clusterJobLock,
+            @Value("${library.popular.fetch-concurrency:4}") int fetchConcurrency,
+            @Value("${library.popular.fetch-timeout:2m}") Duration fetchTimeout
+    ) {
+        this.libraryApiService = libraryApiService;
+        this.snapshotService = snapshotService;
+        this.clusterJobLock = clusterJobLock;
+        this.fetchConcurrency = fetchConcurrency;
+        this.fetchTimeout = fetchTimeout;
+    }
+
+    /** 비어 있으면 기동 시 한 번 수집한다. 실패해도(정보나루 지연 등) 기동은 계속한다. */
     @PostConstruct
     public void initIfEmpty() {
-        if (popularNaruBookRepository.count() == 0) {
-            log.info("===== [PopularNaruBookScheduler] DB 비어있음 → 즉시 전체 나이대 데이터 수집 시작 =====");
-            fetchAndStoreAll();
-        } else {
-            log.info("[PopularNaruBookScheduler] DB에 기존 나루 인기 도서 존재. 초기 로드 스킵.");
+        try {
+            boolean ran = clusterJobLock.runExclusive(LOCK_JOB, LOCK_LEASE, lease -> {
+                if (!snapshotService.hasActiveSnapshot()) {
+                    log.info("===== [PopularNaruBookScheduler] DB 비어있음 → 즉시 전체 나이대 데이터 수집 시작 =====");
+                    fetchAndStoreAll(lease);
+                } else {
+                    log.info("[PopularNaruBookScheduler] DB에 기존 나루 인기 도서 존재. 초기 로드 스킵.");
+                }
+            });
+            if (!ran) {
+                log.info("[PopularNaruBookScheduler] 다른 인스턴스가 수집 중이거나 락 획득 실패. 초기 로드 스킵.");
+            }
+        } catch (Exception e) {
+            log.error("[PopularNaruBookScheduler] 초기 수집 실패: {}", e.getMessage());
         }
     }
 
     /** 매주 월요일 새벽 3시 갱신 */
     @Scheduled(cron = "0 0 3 * * MON")
     public void weeklyRefresh() {
-        log.info("===== [PopularNaruBookScheduler] 주간 배치 갱신 시작 =====");
-        fetchAndStoreAll();
+        try {
+            clusterJobLock.runExclusive(LOCK_JOB, LOCK_LEASE, lease -> {
+                log.info("===== [PopularNaruBookScheduler] 주간 배치 갱신 시작 =====");
+                fetchAndStoreAll(lease);
+            });
+        } catch (Exception e) {
+            log.error("[PopularNaruBookScheduler] 주간 갱신 실패 — 이전 스냅샷 유지: {}", e.getMessage());
+        }
     }
 
-    private void fetchAndStoreAll() {
-        for (int ageGroup : AGE_GROUPS) {
-            try {
-                Integer apiAge = ageGroup == 0 ? null : ageGroup;
-                List<LibraryBookDto> books = libraryApiService.getPopularBooks(apiAge);
+    void fetchAndStoreAll(ClusterJobLock.Lease lease) {
+        Map<Integer, List<PopularNaruBook>> fresh = Flux.fromIterable(AGE_GROUPS)
+                .flatMap(ageGroup -> libraryApiService.getPopularBooksAsync(ageGroup == 0 ? null : ageGroup)
+                        .map(books -> Tuples.of(ageGroup, books)), fetchConcurrency)
+                .filter(result -> {
+                    if (result.getT2().isEmpty()) {
+                        log.warn("[PopularNaruBookScheduler] ageGroup={} 결과 없음. 기존 데이터 유지.", result.getT1());
+                        return false;
+                    }
+                    return true;
+                })
+                .collectMap(Tuple2::getT1, result -> toEntities(result.getT1(), result.getT2()))
+                .block(fetchTimeout);
 
-                if (books.isEmpty()) {
-                    log.warn("[PopularNaruBookScheduler] ageGroup={} 결과 없음. 기존 데이터 유지.", ageGroup);
-                    continue;
-                }
-
-                popularNaruBookRepository.deleteByAgeGroup(ageGroup);
+        if (fresh == null || fresh.isEmpty()) {
+            log.warn("[PopularNaruBookScheduler] 모든 나이대 수집 실패. 기존 스냅샷 유지.");
+            return;
+        }
 
-                List<PopularNaruBook> entities = new ArrayList<>();
-                for (int i = 0; i < books.size(); i++) {
-                    LibraryBookDto dto = books.get(i);
-                    entities.add(PopularNaruBook.builder()
-                            .ageGroup(ageGroup)
-                            .ranking(i + 1)
-                            .bookName(dto.getBookName())
-                            .authors(dto.getAuthors())
-                            .publisher(dto.getPublisher())
-                            .publicationYear(dto.getPublicationYear())
-                            .isbn13(dto.getIsbn13())
-                            .classNm(dto.getClassNm())
-                            .bookImageUrl(dto.getBookImageUrl())
-                            .loanCount(dto.getLoanCount())
-                            .fetchedAt(LocalDateTime.now())
-                            .build());
-                }
-                popularNaruBookRepository.saveAll(entities);
-                log.info("[PopularNaruBookScheduler] ageGroup={} → {}건 저장 완료", ageGroup, entities.size());
+        lease.checkHeld();
+        long version = snapshotService.publish(fresh, AGE_GROUPS, lease);
+        int removed = snapshotService.deleteInactiveVersions();
+        log.info("===== [PopularNaruBookScheduler] 스냅샷 v{} 활성화 (갱신 나이대 {}, 이전 버전 {}건 정리) =====",
+                version, fresh.keySet(), removed);
+    }
 
-            } catch (Exception e) {
-                log.error("[PopularNaruBookScheduler] ageGroup={} 처리 중 오류: {}", ageGroup, e.getMessage());
-            }
+    private static List<PopularNaruBook> toEntities(int ageGroup, List<LibraryBookDto> books) {
+        LocalDateTime fetchedAt = LocalDateTime.now();
+        List<PopularNaruBook> entities = new ArrayList<>();
+        for (int i = 0; i < books.size(); i++) {
+            LibraryBookDto dto = books.get(i);
+            entities.add(PopularNaruBook.builder()
+                    .ageGroup(ageGroup)
+                    .ranking(i + 1)
+                    .bookName(dto.getBookName())
+                    .authors(dto.getAuthors())
+                    .publisher(dto.getPublisher())
+                    .publicationYear(dto.getPublicationYear())
+                    .isbn13(dto.getIsbn13())
+                    .classNm(dto.getClassNm())
+                    .bookImageUrl(dto.getBookImageUrl())
+                    .loanCount(dto.getLoanCount())
+                    .fetchedAt(fetchedAt)
+                    .build());
         }
-        log.info("===== [PopularNaruBookScheduler] 전체 나이대 데이터 수집 완료 =====");
+        return entities;
     }
 }
@@ -0,0 +1,136 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
+import bookapp.bookappback.book.dto.EmbedBatchResponse;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.common.http.CircuitBreaker;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import bookapp.bookappback.common.http.UpstreamGuard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 임베딩 대기 도서를 batchSize 권씩 묶어 FastAPI /api/books/embed-batch 로 보낸다.
+ *
+ * 동시에 날아가는 배치는 concurrency 개로 제한되고(flatMap), 슬롯이 비어야 다음 배치를 만든다.
+ * FastAPI 는 corpus 커밋까지 마친 뒤 응답하므로, 응답의 embedded ISBN 만 UPDATE ... IN 한 번으로 표시한다.
+ * 실패한 배치/도서는 embedded=false 로 남아 다음 실행에서 다시 시도된다.
+ *
+ * 재시도 스캔(embed)과 outbox 워커(embedBatch)가 같은 전송/표시 경로를 쓴다.
+ *
+ * 배치 호출은 원래 느려서 대화형 AI 호출의 가드(서킷/AIMD)를 거치지 않고 같은 커넥션 풀만 공유한다.
+ * 대신 AI 서킷이 OPEN 이면 실행을 건너뛴다.
+ */
+@Slf4j
+@Service
+public class BookEmbeddingPipeline {
+
+    public record Result(int requested, int embedded, int failed) {
+    }
+
+    private final BookRepository bookRepository;
+    private final OutboundHttpClients outboundHttpClients;
+    private final WebClient webClient;
+    private final int batchSize;
+    private final int concurrency;
+
+    public BookEmbeddingPipeline(
+            BookRepository bookRepository,
+            OutboundHttpClients outboundHttpClients,
+            @Value("${ai.base-url}") String aiBaseUrl,
+            @Value("${ai.embedding.batch-size:32}") int batchSize,
+            @Value("${ai.embedding.concurrency:2}") int concurrency,
+            @Value("${ai.embedding.batch-timeout:120s}") Duration batchTimeout
+    ) {
+        this.bookRepository = bookRepository;
+        this.outboundHttpClients = outboundHttpClients;
+        this.webClient = outboundHttpClients.unguardedBuilder(Upstream.AI, batchTimeout)
+                .baseUrl(aiBaseUrl)
+                .build();
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+    }
+
+    /** 모든 배치가 끝날 때까지 블로킹한다 (스케줄러 스레드용 — 실행이 겹치지 않는다). */
+    public Result embed(List<BookEmbeddingSource> books) {
+        if (books.isEmpty()) {
+            return new Result(0, 0, 0);
+        }
+        if (!isAvailable()) {
+            log.warn("AI 서킷 OPEN — 임베딩 {}권은 다음 실행으로 미룹니다", books.size());
+            return new Result(books.size(), 0, books.size());
+        }
+
+        Result result = Flux.fromIterable(books)
+                .map(BookEmbeddingPipeline::toPayload)
+                .buffer(batchSize)
+                .flatMap(batch -> sendAndMark(batch)
+                        .map(embedded -> new Result(batch.size(), embedded.size(), batch.size() - embedded.size()))
+                        .onErrorResume(e -> {
+                            log.error("임베딩 배치 실패 ({}권): {} — 다음 실행에서 재시도합니다", batch.size(), e.getMessage());
+                            return Mono.just(new Result(batch.size(), 0, batch.size()));
+                        }), concurrency)
+                .reduce(new Result(0, 0, 0), (acc, r) -> new Result(
+                        acc.requested() + r.requested(),
+                        acc.embedded() + r.embedded(),
+                        acc.failed() + r.failed()))
+                .block();
+        log.info("임베딩 배치 완료: 요청 {}권, 성공 {}권, 실패 {}권", result.requested(), result.embedded(), result.failed());
+        return result;
+    }
+
+    /**
+     * 한 배치를 보내고 결과를 표시할 때까지 블로킹한다. 호출 실패는 예외로 올라간다.
+     *
+     * @return corpus 에 들어가 embedded=true 로 표시된 ISBN
+     */
+    public List<String> embedBatch(List<BookEmbeddingSource> books) {
+        if (books.isEmpty()) {
+            return List.of();
+        }
+        return sendAndMark(books.stream().map(BookEmbeddingPipeline::toPayload).toList()).block();
+    }
+
+    /** AI 서킷이 OPEN 이면 false — 배치를 보내 봐야 실패하므로 호출 측이 건너뛴다. */
+    public boolean isAvailable() {
+        UpstreamGuard guard = outboundHttpClients.guard(Upstream.AI);
+        return guard == null || guard.state() != CircuitBreaker.State.OPEN;
+    }
+
+    private Mono<List<String>> sendAndMark(List<Map<String, Object>> batch) {
+        return webClient.post()
+                .uri("/api/books/embed-batch")
+                .bodyValue(Map.of("books", batch))
+                .retrieve()
+                .bodyToMono(EmbedBatchResponse.class)
+                .flatMap(response -> Mono.fromCallable(() -> {
+                    if (!response.getEmbedded().isEmpty()) {
+                        bookRepository.markAllAsEmbedded(response.getEmbedded());
+                    }
+                    return response.getEmbedded();
+                }).subscribeOn(Schedulers.boundedElastic()));
+    }
+
+    // FastAPI SingleBookRequest 형식
+    static Map<String, Object> toPayload(BookEmbeddingSource book) {
+        return Map.of(
+                "title", book.title(),
+                "contents", Optional.ofNullable(book.contents()).orElse(""),
+                "isbn", book.isbn13(),
+                "authors", Optional.ofNullable(book.authors()).map(a -> a.split(",")).orElse(new String[0]),
+                "publisher", Optional.ofNullable(book.publisher()).orElse(""),
+                "thumbnail", Optional.ofNullable(book.thumbnail()).orElse("")
+        );
+    }
+}
@@ -0,0 +1,78 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.entity.Book;
+import bookapp.bookappback.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * ISBN13 → bookId 프로세스 내 캐시.
+ *
+ * Book 의 id 와 isbn13 은 저장 후 바뀌지 않으므로 한 번 알게 된 매핑은 무효화할 필요가 없다.
+ * 미스는 IN 쿼리 한 번으로 모아서 조회하고, DB 에 없는 ISBN 은 나중에 저장될 수 있으므로 기억하지 않는다.
+ */
+@Component
+@RequiredArgsConstructor
+public class BookIdResolver {
+
+    private final BookRepository bookRepository;
+    private final Map<String, Long> idByIsbn = new ConcurrentHashMap<>();
+
+    // 메모리 상한. 넘으면 새 매핑은 캐시하지 않고 DB 조회로 처리한다.
+    @Value("${book.isbn-cache.max-size:200000}")
+    private int maxSize = 200_000;
+
+    public Optional<Long> cachedId(String isbn13) {
+        if (isbn13 == null) return Optional.empty();
+        return Optional.ofNullable(idByIsbn.get(isbn13));
+    }
+
+    public void remember(Book book) {
+        if (book == null || book.getId() == null || book.getIsbn13() == null) return;
+        remember(book.getIsbn13(), book.getId());
+    }
+
+    /**
+     * ISBN 목록을 bookId 로 변환한다. 캐시 미스만 모아서 쿼리 한 번으로 조회한다.
+     *
+     * @return isbn13 → bookId (DB 에 없는 ISBN 은 포함되지 않음)
+     */
+    public Map<String, Long> resolveIds(Collection<String> isbns) {
+        Map<String, Long> resolved = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String isbn : isbns) {
+            if (isbn == null) continue;
+            Long id = idByIsbn.get(isbn);
+            if (id != null) {
+                resolved.put(isbn, id);
+            } else {
+                misses.add(isbn);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            for (Object[] row : bookRepository.findIdsByIsbn13In(misses)) {
+                String isbn = (String) row[0];
+                Long id = ((Number) row[1]).longValue();
+                resolved.put(isbn, id);
+                remember(isbn, id);
+            }
+        }
+        return resolved;
+    }
+
+    private void remember(String isbn13, Long id) {
+        if (idByIsbn.size() < maxSize) {
+            idByIsbn.putIfAbsent(isbn13, id);
+        }
+    }
+}
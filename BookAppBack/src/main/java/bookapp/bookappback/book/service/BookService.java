@@ -4,19 +4,16 @@ import bookapp.bookappback.book.dto.KakaoBookDto;
 import bookapp.bookappback.book.dto.KakaoBookSearchResponse;
 import bookapp.bookappback.book.entity.Book;
 import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.SearchQueryNormalizer.SearchQuery;
 import bookapp.bookappback.common.exception.BookExceptions;
-import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
-import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Popularity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -28,30 +25,44 @@ public class BookService {
 
     private final BookRepository bookRepository;
     private final KakaoSearchCacheService kakaoSearchCacheService;
-    private final WebClient.Builder webClientBuilder;
-    private final UserBookStatusRepository userBookStatusRepository;
-
-    private final String aiBaseUrl;
+    private final ReactiveKakaoSearchService reactiveKakaoSearchService;
+    private final EmbeddingOutboxService embeddingOutboxService;
+    private final UserBookInteractionIndex interactionIndex;
+    private final BookIdResolver bookIdResolver;
 
     @Autowired
     public BookService(BookRepository bookRepository,
                        KakaoSearchCacheService kakaoSearchCacheService,
-                       WebClient.Builder webClientBuilder,
-                       UserBookStatusRepository userBookStatusRepository,
-                       @org.springframework.beans.factory.annotation.Value("${ai.base-url}") String aiBaseUrl) {
+                       ReactiveKakaoSearchService reactiveKakaoSearchService,
+                       EmbeddingOutboxService embeddingOutboxService,
+                       UserBookInteractionIndex interactionIndex,
+                       BookIdResolver bookIdResolver) {
         this.bookRepository = bookRepository;
         this.kakaoSearchCacheService = kakaoSearchCacheService;
-        this.webClientBuilder = webClientBuilder;
-        this.userBookStatusRepository = userBookStatusRepository;
-        this.aiBaseUrl = aiBaseUrl;
+        this.reactiveKakaoSearchService = reactiveKakaoSearchService;
+        this.embeddingOutboxService = embeddingOutboxService;
+        this.interactionIndex = interactionIndex;
+        this.bookIdResolver = bookIdResolver;
     }
 
 
     // 카카오 API에서 책 검색 (캐싱은 KakaoSearchCacheService에서 처리)
+    // 표기만 다른 검색어가 같은 캐시 키/Kakao 호출을 쓰도록 먼저 정규화한다
     public KakaoBookSearchResponse searchBooksFromKakao(
             String query, int page, int size, String sort, String target
     ) {
-        return kakaoSearchCacheService.searchBooks(query, page, size, sort, target);
+        SearchQuery normalized = SearchQueryNormalizer.normalize(query, page, size, sort, target);
+        return kakaoSearchCacheService.searchBooks(
+                normalized.query(), normalized.page(), normalized.size(), normalized.sort(), normalized.target());
+    }
+
+    // 논블로킹 검색 — 같은 정규화/캐시 엔트리를 쓰고, Kakao 응답을 기다리는 동안 요청 스레드를 반환한다
+    public Mono<KakaoBookSearchResponse> searchBooksFromKakaoReactive(
+            String query, int page, int size, String sort, String target
+    ) {
+        SearchQuery normalized = SearchQueryNormalizer.normalize(query, page, size, sort, target);
+        return reactiveKakaoSearchService.searchBooks(
+                normalized.query(), normalized.page(), normalized.size(), normalized.sort(), normalized.target());
     }
 
     // 기본값 오버로드
@@ -59,9 +70,9 @@ public class BookService {
         return searchBooksFromKakao(query, 1, 10, "accuracy", null);
     }
 
-    // ISBN으로 책 상세 정보 조회
+    // ISBN으로 책 상세 정보 조회 — id 를 이미 알면 PK 조회, 아니면 ISBN 조회 후 매핑을 기억
     public Book getBookByIsbn(String isbn) {
-        return bookRepository.findByIsbn13(isbn)
+        return findByIsbnCached(isbn)
                 .orElseGet(() -> {
                     KakaoBookSearchResponse response = kakaoSearchCacheService.searchBookByIsbn(isbn);
 
@@ -73,9 +84,19 @@ public class BookService {
                 });
     }
 
+    private Optional<Book> findByIsbnCached(String isbn) {
+        return bookIdResolver.cachedId(isbn)
+                .flatMap(bookRepository::findById)
+                .or(() -> {
+                    Optional<Book> book = bookRepository.findByIsbn13(isbn);
+                    book.ifPresent(bookIdResolver::remember);
+                    return book;
+                });
+    }
+
     // 출판사별 책 조회
     public List<Book> getBookEditions(String isbn) {
-        Book originalBook = bookRepository.findByIsbn13(isbn)
+        Book originalBook = findByIsbnCached(isbn)
                 .orElseThrow(() -> new BookExceptions.BookNotFoundException("책을 찾을 수 없습니다: " + isbn));
 
         String groupTitle = originalBook.getGroupTitle();
@@ -99,16 +120,15 @@ public class BookService {
             String[] isbns = rawIsbn.split(" ");
             String isbn13 = isbns.length > 1 ? isbns[1] : isbns[0];
 
-            Optional<Book> existingBook = bookRepository.findByIsbn13(isbn13);
+            Optional<Book> existingBook = findByIsbnCached(isbn13);
             if (existingBook.isPresent()) {
                 return existingBook.get();
             }
 
             Book bookToSave = Book.fromKakaoApiResponse(kakaoBook);
-            Book savedBook = bookRepository.save(bookToSave);
-
-            // Trigger the embedding for the newly saved book
-            triggerSingleBookEmbedding(savedBook);
+            // 임베딩 작업은 같은 트랜잭션에서 outbox 에 남기고 EmbeddingOutboxWorker 가 처리한다
+            Book savedBook = embeddingOutboxService.saveWithOutbox(bookToSave);
+            bookIdResolver.remember(savedBook);
 
             return savedBook;
         } catch (Exception e) {
@@ -117,28 +137,17 @@ public class BookService {
         }
     }
 
-    // 인기 도서 조회 — 매 요청마다 COUNT 집계를 피하기 위해 1시간 캐시
-    @Cacheable(value = "popularBooksCache", key = "#limit")
+    // 인기 도서 조회 — 인덱스가 상태 변경마다 갱신하는 순위표(읽는 중/완독 유저 수)에서 상위만 읽는다
     public List<Book> getPopularBooks(int limit) {
-        List<Object[]> raw = userBookStatusRepository.findPopularBooksByStatuses(
-                List.of(ReadingStatus.READING, ReadingStatus.COMPLETED)
-        );
-        if (raw.isEmpty()) {
+        List<Long> orderedIds = interactionIndex.topBooks(Popularity.READERS, limit, Collections.emptySet());
+        if (orderedIds.isEmpty()) {
             return bookRepository.findTopNByOrderByCreatedAtDesc(limit);
         }
 
-        LinkedHashMap<Long, Long> orderedIds = new LinkedHashMap<>();
-        for (Object[] row : raw) {
-            Long bookId = ((Number) row[0]).longValue();
-            Long count = ((Number) row[1]).longValue();
-            orderedIds.put(bookId, count);
-            if (orderedIds.size() >= limit) break;
-        }
-
-        List<Book> books = bookRepository.findAllById(orderedIds.keySet());
+        List<Book> books = bookRepository.findAllById(orderedIds);
         Map<Long, Book> bookById = books.stream().collect(Collectors.toMap(Book::getId, b -> b));
 
-        return orderedIds.keySet().stream()
+        return orderedIds.stream()
                 .map(bookById::get)
                 .filter(java.util.Objects::nonNull)
                 .collect(Collectors.toList());
@@ -148,28 +157,4 @@ public class BookService {
         return bookRepository.findAllById(ids);
     }
 
-    public void triggerSingleBookEmbedding(Book book) {
-        WebClient webClient = webClientBuilder.baseUrl(aiBaseUrl).build();
-
-        Map<String, Object> bookData = Map.of(
-                "title", book.getTitle(),
-                "contents", Optional.ofNullable(book.getContents()).orElse(""),
-                "isbn", book.getIsbn13(),
-                "authors", Optional.ofNullable(book.getAuthors()).map(a -> a.split(",")).orElse(new String[0]),
-                "publisher", Optional.ofNullable(book.getPublisher()).orElse(""),
-                "thumbnail", Optional.ofNullable(book.getThumbnail()).orElse("")
-        );
-
-        webClient.post()
-                .uri("/api/books/embed-single")
-                .bodyValue(bookData)
-                .retrieve()
-                .bodyToMono(String.class)
-                .flatMap(response -> Mono.fromRunnable(() -> {
-                    log.info("임베딩 성공 [isbn={}]", book.getIsbn13());
-                    bookRepository.markAsEmbedded(book.getIsbn13());
-                }).subscribeOn(Schedulers.boundedElastic()).thenReturn(response))
-                .doOnError(error -> log.error("임베딩 실패 [isbn={}]: {} — 스케줄러가 재시도합니다", book.getIsbn13(), error.getMessage()))
-                .subscribe();
-    }
 }
@@ -0,0 +1,102 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.entity.Book;
+import bookapp.bookappback.book.repository.BookRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 임베딩 outbox (embedding_outbox) 읽기/쓰기.
+ *
+ * 도서 저장과 outbox 기록을 한 트랜잭션으로 묶어, 저장 직후 JVM 이 죽어도 임베딩 작업이 남는다.
+ * 워커는 claim 으로 행을 가져가는데, FOR UPDATE SKIP LOCKED 로 다른 인스턴스가 잡은 행은 건너뛰고
+ * locked_until(lease) 을 찍어 두므로 처리 중인 행은 lease 가 끝날 때까지 다시 클레임되지 않는다.
+ * complete/retryLater 는 lease 주인(locked_by)일 때만 반영된다 — lease 가 만료돼 다른 워커가 가져간 행은 건드리지 않는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class EmbeddingOutboxService {
+
+    public record Claimed(long id, String isbn13, int attempts) {
+    }
+
+    private final BookRepository bookRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /** 도서를 저장하고 같은 트랜잭션에서 임베딩 작업을 기록한다. */
+    @Transactional
+    public Book saveWithOutbox(Book book) {
+        Book saved = bookRepository.save(book);
+        jdbcTemplate.update("""
+                INSERT INTO embedding_outbox (isbn13, attempts, available_at, created_at)
+                VALUES (:isbn13, 0, now(), now())
+                ON CONFLICT (isbn13) DO NOTHING
+                """, new MapSqlParameterSource("isbn13", saved.getIsbn13()));
+        return saved;
+    }
+
+    /** 클레임 가능한 행을 최대 limit 개 가져가 lease 를 잡는다 (단일 UPDATE, 자동 커밋). */
+    public List<Claimed> claim(String owner, int limit, Duration lease) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("owner", owner)
+                .addValue("limit", limit)
+                .addValue("leaseSeconds", lease.toSeconds());
+        return jdbcTemplate.query("""
+                UPDATE embedding_outbox
+                SET locked_by = :owner,
+                    locked_until = now() + make_interval(secs => :leaseSeconds),
+                    attempts = attempts + 1
+                WHERE id IN (SELECT id
+                             FROM embedding_outbox
+                             WHERE available_at <= now()
+                               AND (locked_until IS NULL OR locked_until < now())
+                             ORDER BY id
+                             LIMIT :limit
+                             FOR UPDATE SKIP LOCKED)
+                RETURNING id, isbn13, attempts
+                """, params, (rs, rowNum) -> new Claimed(rs.getLong("id"), rs.getString("isbn13"), rs.getInt("attempts")));
+    }
+
+    /** 처리 완료 — 행을 지운다. */
+    public int complete(String owner, Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        return jdbcTemplate.update(
+                "DELETE FROM embedding_outbox WHERE id IN (:ids) AND locked_by = :owner",
+                new MapSqlParameterSource().addValue("ids", ids).addValue("owner", owner));
+    }
+
+    /**
+     * 처리 실패 — lease 를 풀고 base × 2^(attempts-1) (최대 maxBackoff) 뒤로 미룬다.
+     * maxAttempts 를 넘긴 행은 지운다 (도서는 embedded=false 로 남아 EmbeddingRetryScheduler 스캔이 줍는다).
+     *
+     * @return 지운 행 수
+     */
+    @Transactional
+    public int retryLater(String owner, Collection<Long> ids, int maxAttempts, Duration baseBackoff, Duration maxBackoff) {
+        if (ids.isEmpty()) return 0;
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("ids", ids)
+                .addValue("owner", owner)
+                .addValue("maxAttempts", maxAttempts)
+                .addValue("baseSeconds", (double) baseBackoff.toSeconds())
+                .addValue("maxSeconds", (double) maxBackoff.toSeconds());
+        int dropped = jdbcTemplate.update(
+                "DELETE FROM embedding_outbox WHERE id IN (:ids) AND locked_by = :owner AND attempts >= :maxAttempts",
+                params);
+        jdbcTemplate.update("""
+                UPDATE embedding_outbox
+                SET locked_by = NULL,
+                    locked_until = NULL,
+                    available_at = now() + make_interval(secs => least(:maxSeconds, :baseSeconds * power(2, attempts - 1)))
+                WHERE id IN (:ids) AND locked_by = :owner
+                """, params);
+        return dropped;
+    }
+}
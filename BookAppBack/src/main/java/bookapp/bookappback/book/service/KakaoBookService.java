@@ -1,13 +1,13 @@
 package bookapp.bookappback.book.service;
 
 import bookapp.bookappback.book.dto.KakaoBookSearchResponse;
-import io.netty.channel.ChannelOption;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Mono;
-import reactor.netty.http.client.HttpClient;
 
 import java.time.Duration;
 
@@ -19,14 +19,11 @@ public class KakaoBookService {
     @Value("${kakao.api.key}")
     private String kakaoApiKey;
 
-    public KakaoBookService() {
-        // 커넥션 타임아웃 3초, 응답 타임아웃 5초
-        HttpClient httpClient = HttpClient.create()
-                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 3_000)
-                .responseTimeout(Duration.ofSeconds(5));
-
+    @Autowired
+    public KakaoBookService(OutboundHttpClients outboundHttpClients) {
+        // 커넥션 타임아웃 3초, 응답 타임아웃 5초 (kakao 풀 공유)
         this.webClient = WebClient.builder()
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(outboundHttpClients.connector(Upstream.KAKAO, Duration.ofSeconds(5)))
                 .build();
     }
 
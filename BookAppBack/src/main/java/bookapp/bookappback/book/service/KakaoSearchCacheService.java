@@ -18,6 +18,9 @@ import java.time.Duration;
  * 1. private 메서드에는 Spring AOP 프록시가 적용되지 않아 캐시가 동작하지 않음.
  * 2. 같은 클래스 내 self-invocation도 프록시를 우회하므로 동일한 문제가 발생함.
  * 이 클래스를 별도 Bean으로 분리함으로써 두 문제를 모두 해결한다.
+ *
+ * sync = true 이므로 같은 키의 동시 미스는 Kakao 를 한 번만 호출하고 결과를 공유한다 (TwoTierCache single-flight).
+ * cache.load-lock.enabled=true 이면 인스턴스 간에도 Redis 락으로 한 번만 호출한다.
  */
 @Slf4j
 @Service
@@ -28,6 +31,7 @@ public class KakaoSearchCacheService {
 
     @Cacheable(
         value = "bookSearchCache",
+        sync = true,
         key = "'q:' + #query + ':p:' + #page + ':s:' + #size + ':so:' + #sort + ':t:' + #target"
     )
     public KakaoBookSearchResponse searchBooks(String query, int page, int size, String sort, String target) {
@@ -42,7 +46,7 @@ public class KakaoSearchCacheService {
         }
     }
 
-    @Cacheable(value = "bookSearchCache", key = "'isbn:' + #isbn")
+    @Cacheable(value = "bookSearchCache", key = "'isbn:' + #isbn", sync = true)
     public KakaoBookSearchResponse searchBookByIsbn(String isbn) {
         try {
             return kakaoBookService.searchBookByIsbn(isbn)
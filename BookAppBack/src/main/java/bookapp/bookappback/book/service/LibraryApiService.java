@@ -1,6 +1,8 @@
 package bookapp.bookappback.book.service;
 
 import bookapp.bookappback.book.dto.LibraryBookDto;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -8,7 +10,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
@@ -28,11 +32,13 @@ public class LibraryApiService {
 
     public LibraryApiService(
             @Value("${library.api.key}") String apiKey,
-            WebClient.Builder webClientBuilder,
+            OutboundHttpClients outboundHttpClients,
             ObjectMapper objectMapper
     ) {
         this.apiKey = apiKey;
-        this.webClient = webClientBuilder.baseUrl(LIBRARY_API_BASE_URL).build();
+        this.webClient = outboundHttpClients.builder(Upstream.LIBRARY, Duration.ofSeconds(30))
+                .baseUrl(LIBRARY_API_BASE_URL)
+                .build();
         this.objectMapper = objectMapper;
     }
 
@@ -51,25 +57,38 @@ public class LibraryApiService {
      * @param ageGroup 10/20/30/40/50/60 중 하나, null이면 전체 연령
      */
     public List<LibraryBookDto> getPopularBooks(Integer ageGroup) {
+        List<LibraryBookDto> result = getPopularBooksAsync(ageGroup).block();
+        return result != null ? result : Collections.emptyList();
+    }
+
+    /**
+     * 논블로킹 버전. 구독 시점에 요청이 나가므로 여러 나이대를 동시에 받을 수 있다.
+     * @return 실패 시 빈 리스트를 발행
+     */
+    public Mono<List<LibraryBookDto>> getPopularBooksAsync(Integer ageGroup) {
         String endDt = LocalDate.now().format(DATE_FMT);
         String startDt = LocalDate.now().minusDays(30).format(DATE_FMT);
 
         String uri = buildUri(startDt, endDt, ageGroup);
         log.info("도서관 정보나루 API 호출: {}", uri.replaceAll("authKey=[^&]+", "authKey=****"));
 
-        try {
-            String responseBody = webClient.get()
-                    .uri(uri)
-                    .retrieve()
-                    .bodyToMono(String.class)
-                    .block();
-
-            log.debug("도서관 정보나루 응답 (앞 500자): {}", responseBody != null ? responseBody.substring(0, Math.min(500, responseBody.length())) : "null");
-            return parseBooks(responseBody);
-        } catch (Exception e) {
-            log.error("도서관 정보나루 API 호출 실패 [age={}]: {} - {}", ageGroup, e.getClass().getSimpleName(), e.getMessage());
-            return Collections.emptyList();
-        }
+        return webClient.get()
+                .uri(uri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .<List<LibraryBookDto>>handle((responseBody, sink) -> {
+                    log.debug("도서관 정보나루 응답 (앞 500자): {}", responseBody.substring(0, Math.min(500, responseBody.length())));
+                    try {
+                        sink.next(parseBooks(responseBody));
+                    } catch (JsonProcessingException e) {
+                        sink.error(e);
+                    }
+                })
+                .defaultIfEmpty(Collections.emptyList())
+                .onErrorResume(e -> {
+                    log.error("도서관 정보나루 API 호출 실패 [age={}]: {} - {}", ageGroup, e.getClass().getSimpleName(), e.getMessage());
+                    return Mono.just(Collections.emptyList());
+                });
     }
 
     private String buildUri(String startDt, String endDt, Integer ageGroup) {
@@ -0,0 +1,95 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.entity.PopularNaruBook;
+import bookapp.bookappback.book.entity.PopularNaruSnapshot;
+import bookapp.bookappback.book.repository.PopularNaruBookRepository;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import bookapp.bookappback.common.scheduling.JobFence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 정보나루 인기 도서 버전 스냅샷 쓰기.
+ *
+ * 갱신은 새 버전 번호로 행을 모두 쓴 뒤 같은 트랜잭션에서 포인터(active_version)만 바꾼다.
+ * 조회 쿼리는 포인터와 행을 한 문장에서 읽으므로 교체 중에도 빈 결과나 섞인 버전을 보지 않는다.
+ * 이번에 못 받은 나이대는 현재 버전 행을 새 버전으로 복사해 이전 데이터를 유지한다.
+ * 버전은 포인터 행에서 발급하고, 포인터는 더 큰 버전으로만 움직인다.
+ * 발행 트랜잭션은 먼저 수집 잡 lease 의 fencing token 을 기록하므로(JobFence), lease 를 잃은 이전 보유자의
+ * 늦은 발행은 새 보유자의 발행과 겹치지 않고 거절된다.
+ */
+@Service
+@RequiredArgsConstructor
+public class PopularNaruSnapshotService {
+
+    private final PopularNaruBookRepository popularNaruBookRepository;
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final JobFence jobFence;
+
+    public boolean hasActiveSnapshot() {
+        return popularNaruBookRepository.countActive() > 0;
+    }
+
+    /**
+     * @param fresh     이번에 받은 나이대별 순위 (snapshotVersion 은 여기서 채운다)
+     * @param ageGroups 스냅샷에 있어야 하는 전체 나이대
+     * @param lease     수집 잡 lease
+     * @return 활성화된 버전
+     * @throws ClusterJobLock.LeaseLostException 더 새로운 lease 가 이미 발행했을 때
+     */
+    @Transactional
+    public long publish(Map<Integer, List<PopularNaruBook>> fresh, Collection<Integer> ageGroups, ClusterJobLock.Lease lease) {
+        jobFence.advance(lease);
+        MapSqlParameterSource params = new MapSqlParameterSource("id", PopularNaruSnapshot.POINTER_ID);
+        jdbcTemplate.update("""
+                INSERT INTO popular_naru_snapshot (id, active_version, next_version, activated_at)
+                VALUES (:id, 0, 0, now())
+                ON CONFLICT (id) DO NOTHING
+                """, params);
+        long version = jdbcTemplate.queryForObject(
+                "UPDATE popular_naru_snapshot SET next_version = next_version + 1 WHERE id = :id RETURNING next_version",
+                params, Long.class);
+        params.addValue("version", version);
+
+        List<PopularNaruBook> rows = fresh.values().stream().flatMap(List::stream).toList();
+        rows.forEach(row -> row.setSnapshotVersion(version));
+        popularNaruBookRepository.saveAll(rows);
+
+        List<Integer> carried = ageGroups.stream().filter(ageGroup -> !fresh.containsKey(ageGroup)).toList();
+        if (!carried.isEmpty()) {
+            jdbcTemplate.update("""
+                    INSERT INTO popular_naru_books (age_group, ranking, book_name, authors, publisher, publication_year,
+                                                    isbn13, class_nm, book_image_url, loan_count, fetched_at, snapshot_version)
+                    SELECT age_group, ranking, book_name, authors, publisher, publication_year,
+                           isbn13, class_nm, book_image_url, loan_count, fetched_at, :version
+                    FROM popular_naru_books
+                    WHERE age_group IN (:carried)
+                      AND snapshot_version = (SELECT active_version FROM popular_naru_snapshot WHERE id = :id)
+                    """, params.addValue("carried", carried));
+        }
+
+        int flipped = jdbcTemplate.update("""
+                UPDATE popular_naru_snapshot SET active_version = :version, activated_at = now()
+                WHERE id = :id AND active_version < :version
+                """, params);
+        if (flipped == 0) {
+            throw new IllegalStateException("더 새로운 정보나루 스냅샷이 이미 활성화됨: version=" + version);
+        }
+        return version;
+    }
+
+    /** 활성 버전보다 오래된 행 정리. 진행 중인 조회는 문장 시작 시점 스냅샷(MVCC)을 읽으므로 영향이 없다. */
+    public int deleteInactiveVersions() {
+        return jdbcTemplate.update("""
+                DELETE FROM popular_naru_books
+                WHERE snapshot_version < (SELECT active_version FROM popular_naru_snapshot WHERE id = :id)
+                """, new MapSqlParameterSource("id", PopularNaruSnapshot.POINTER_ID));
+    }
+}
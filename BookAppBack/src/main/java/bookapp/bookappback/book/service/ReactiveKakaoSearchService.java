@@ -0,0 +1,108 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.dto.KakaoBookSearchResponse;
+import bookapp.bookappback.common.cache.CacheEnvelope;
+import bookapp.bookappback.common.exception.BookExceptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * KakaoSearchCacheService 의 논블로킹 버전. 요청 스레드를 잡지 않고 Redis/Kakao 호출을 체인으로 잇는다.
+ *
+ * 블로킹 경로(@Cacheable → TwoTierCache)와 같은 Redis 키(bookSearchCache::q:...)와
+ * 같은 값 형식(CacheEnvelope, soft/hard TTL)을 쓰므로 두 경로가 서로의 적재 결과를 그대로 읽는다.
+ * Caffeine L1 은 거치지 않는다 (조회마다 Redis GET 1회, 네트워크 대기 중 스레드는 반환).
+ *
+ * - 같은 키의 동시 미스는 하나의 Kakao 호출을 공유한다 (인스턴스 내 single-flight).
+ * - soft 만료가 지난 값은 그대로 응답하고 백그라운드로 한 번 갱신한다.
+ * - Redis 장애 시 캐시 없이 Kakao 를 직접 호출한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReactiveKakaoSearchService {
+
+    static final String CACHE_NAME = "bookSearchCache";
+
+    private final KakaoBookService kakaoBookService;
+    private final ReactiveRedisTemplate<String, Object> cacheReactiveRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Mono<KakaoBookSearchResponse>> inFlight = new ConcurrentHashMap<>();
+
+    @Value("${cache.ttl.bookSearchCache.soft:5h}")
+    private Duration softTtl;
+
+    @Value("${cache.ttl.bookSearchCache.hard:6h}")
+    private Duration hardTtl;
+
+    public Mono<KakaoBookSearchResponse> searchBooks(String query, int page, int size, String sort, String target) {
+        // KakaoSearchCacheService.searchBooks 의 @Cacheable 키와 동일 (SpEL 문자열 연결은 null 을 "null" 로 쓴다)
+        String key = CACHE_NAME + "::q:" + query + ":p:" + page + ":s:" + size + ":so:" + sort + ":t:" + target;
+
+        return cacheReactiveRedisTemplate.opsForValue().get(key)
+                .onErrorResume(e -> {
+                    log.warn("[ReactiveSearch] Redis 조회 실패, Kakao 직접 호출 [key={}]: {}", key, e.getMessage());
+                    return Mono.empty();
+                })
+                .flatMap(stored -> fromCache(key, stored, query, page, size, sort, target))
+                .switchIfEmpty(Mono.defer(() -> {
+                    meterRegistry.counter("cache.reactive.gets", "cache", CACHE_NAME, "result", "miss").increment();
+                    return load(key, query, page, size, sort, target);
+                }));
+    }
+
+    private Mono<KakaoBookSearchResponse> fromCache(String key, Object stored,
+                                                    String query, int page, int size, String sort, String target) {
+        Object value = stored;
+        if (stored instanceof CacheEnvelope envelope) {
+            value = envelope.getValue();
+            if (System.currentTimeMillis() >= envelope.getSoftExpiresAt() && !inFlight.containsKey(key)) {
+                meterRegistry.counter("cache.refreshes", "cache", CACHE_NAME).increment();
+                load(key, query, page, size, sort, target).subscribe(
+                        r -> { },
+                        e -> log.warn("[ReactiveSearch] 백그라운드 갱신 실패 — 기존 값 유지 [key={}]: {}", key, e.getMessage()));
+            }
+        }
+        if (!(value instanceof KakaoBookSearchResponse response)) {
+            return Mono.empty();
+        }
+        meterRegistry.counter("cache.reactive.gets", "cache", CACHE_NAME, "result", "hit").increment();
+        return Mono.just(response);
+    }
+
+    private Mono<KakaoBookSearchResponse> load(String key, String query, int page, int size, String sort, String target) {
+        return inFlight.computeIfAbsent(key, k -> {
+            meterRegistry.counter("cache.loads", "cache", CACHE_NAME).increment();
+            return kakaoBookService.searchBooks(query, page, size, sort, target)
+                    .retryWhen(Retry.fixedDelay(1, Duration.ofMillis(300)))
+                    .flatMap(response -> store(key, response).thenReturn(response))
+                    .onErrorMap(e -> !(e instanceof BookExceptions.ExternalApiException), e -> {
+                        log.error("Kakao API 검색 실패 [query={}]: {}", query, e.getMessage());
+                        return new BookExceptions.ExternalApiException("카카오 API 호출 실패: " + e.getMessage());
+                    })
+                    .doFinally(signal -> inFlight.remove(key))
+                    .cache();
+        });
+    }
+
+    // 캐시 쓰기 실패는 응답에 영향을 주지 않는다
+    private Mono<Boolean> store(String key, KakaoBookSearchResponse response) {
+        CacheEnvelope envelope = new CacheEnvelope(response, System.currentTimeMillis() + softTtl.toMillis());
+        return cacheReactiveRedisTemplate.opsForValue().set(key, envelope, hardTtl)
+                .onErrorResume(e -> {
+                    log.warn("[ReactiveSearch] Redis 저장 실패 [key={}]: {}", key, e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package bookapp.bookappback.book.service;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * 검색 요청 정규화. 캐시 키와 Kakao 호출에 같은 값을 쓰도록 BookService 가 캐시 조회 전에 적용한다.
+ *
+ * - 검색어: 유니코드 NFC 합성(자모 분리 입력 통일) → 연속 공백(전각/NBSP 포함)을 한 칸으로 → 앞뒤 공백 제거 → 소문자
+ * - sort: 비어 있으면 Kakao 기본값 accuracy, 그 외 소문자
+ * - target: 비어 있으면 null(전체), 그 외 소문자
+ *
+ * 단어 사이 공백은 지우지 않는다. "미움받을 용기" 와 "미움받을용기" 는 Kakao 결과가 다를 수 있다.
+ */
+public final class SearchQueryNormalizer {
+
+    public static final String DEFAULT_SORT = "accuracy";
+
+    private static final Pattern WHITESPACE = Pattern.compile("[\\s\\u00A0\\u3000]+");
+
+    public record SearchQuery(String query, int page, int size, String sort, String target) {}
+
+    private SearchQueryNormalizer() {
+    }
+
+    public static SearchQuery normalize(String query, int page, int size, String sort, String target) {
+        return new SearchQuery(
+                normalizeText(query),
+                page,
+                size,
+                isBlank(sort) ? DEFAULT_SORT : sort.trim().toLowerCase(Locale.ROOT),
+                isBlank(target) ? null : target.trim().toLowerCase(Locale.ROOT)
+        );
+    }
+
+    /** 자유 입력 텍스트 정규화 (NFC + 공백 접기 + 소문자). null 은 빈 문자열. */
+    public static String normalizeText(String text) {
+        if (text == null) return "";
+        String composed = Normalizer.normalize(text, Normalizer.Form.NFC);
+        return WHITESPACE.matcher(composed).replaceAll(" ").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
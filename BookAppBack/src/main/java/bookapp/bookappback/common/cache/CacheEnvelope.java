@@ -0,0 +1,23 @@
+package bookapp.bookappback.common.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * soft TTL 이 설정된 캐시에 저장되는 값 + soft 만료 시각(epoch ms).
+ * hard 만료는 저장소 TTL(Redis entryTtl)이 담당한다.
+ *
+ * Redis 직렬화(default typing)에서 타입 정보가 붙도록 final 로 두지 않는다.
+ */
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheEnvelope {
+    private Object value;
+    private long softExpiresAt;
+
+    boolean isStale(long nowMillis) {
+        return nowMillis >= softExpiresAt;
+    }
+}
@@ -0,0 +1,81 @@
+package bookapp.bookappback.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * 인스턴스 간 L1 캐시 무효화 채널 (Redis pub/sub).
+ *
+ * TwoTierCache 가 쓰기/무효화할 때 발행하고, 다른 인스턴스는 수신 즉시 자기 L1 에서 해당 키를 지운다.
+ * L2(Redis)는 공유 저장소이므로 건드리지 않는다. 자기 자신이 보낸 메시지는 무시한다.
+ *
+ * 메시지 형식: {origin}\n{cacheName}\n{E|C}\n{key}  (E = 키 무효화, C = 캐시 전체 비우기)
+ * pub/sub 은 유실될 수 있으므로 L1 TTL 이 최종 안전장치다.
+ */
+@Slf4j
+public class CacheInvalidationBus implements MessageListener {
+
+    public static final String CHANNEL = "cache:l1-invalidate";
+
+    @FunctionalInterface
+    public interface Handler {
+        /** key 가 null 이면 캐시 전체 */
+        void invalidateLocal(String cacheName, String key);
+    }
+
+    private final String origin = UUID.randomUUID().toString();
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private volatile Handler handler;
+
+    public CacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                RedisMessageListenerContainer listenerContainer,
+                                MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    public void subscribe(Handler handler) {
+        this.handler = handler;
+    }
+
+    public void publishEvict(String cacheName, String key) {
+        publish(cacheName + "\nE\n" + key);
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName + "\nC\n");
+    }
+
+    private void publish(String payload) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, origin + "\n" + payload);
+        } catch (Exception e) {
+            // 발행 실패는 다른 인스턴스 L1 이 TTL 까지 오래된 값을 줄 뿐이므로 요청은 실패시키지 않는다
+            log.warn("[CacheInvalidation] 발행 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 4);
+        if (parts.length < 3 || origin.equals(parts[0])) return;
+
+        Handler current = handler;
+        if (current == null) return;
+
+        String cacheName = parts[1];
+        String key = "E".equals(parts[2]) && parts.length == 4 ? parts[3] : null;
+        current.invalidateLocal(cacheName, key);
+        meterRegistry.counter("cache.l1.invalidations.received", "cache", cacheName).increment();
+    }
+}
@@ -0,0 +1,69 @@
+package bookapp.bookappback.common.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 캐시 미스 적재를 인스턴스 간에 한 번으로 줄이기 위한 Redis 락.
+ *
+ * SET key token NX PX lease 로 잡고, 해제는 토큰이 같을 때만 지운다(Lua).
+ * 락을 못 잡은 쪽은 L2 에 값이 채워지기를 waitTimeout 까지 기다린다 (TwoTierCache 참고).
+ * Redis 장애 시에는 락 없이 진행하도록 예외를 삼키고 "획득"으로 취급한다.
+ */
+@Slf4j
+public class RedisLoadLock {
+
+    private static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+    private final Duration waitTimeout;
+    private final Duration pollInterval;
+
+    public RedisLoadLock(StringRedisTemplate redisTemplate, Duration lease, Duration waitTimeout, Duration pollInterval) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+        this.waitTimeout = waitTimeout;
+        this.pollInterval = pollInterval;
+    }
+
+    /** @return 획득 시 해제용 토큰, 다른 인스턴스가 적재 중이면 null */
+    public String tryAcquire(String cacheName, String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(cacheName, key), token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (Exception e) {
+            log.warn("[LoadLock] 획득 실패 — 락 없이 적재: {}", e.getMessage());
+            return token;
+        }
+    }
+
+    public void release(String cacheName, String key, String token) {
+        try {
+            redisTemplate.execute(RELEASE, List.of(lockKey(cacheName, key)), token);
+        } catch (Exception e) {
+            log.warn("[LoadLock] 해제 실패 — lease 만료로 풀림: {}", e.getMessage());
+        }
+    }
+
+    public Duration waitTimeout() {
+        return waitTimeout;
+    }
+
+    public Duration pollInterval() {
+        return pollInterval;
+    }
+
+    private static String lockKey(String cacheName, String key) {
+        return "cache-load:" + cacheName + ":" + key;
+    }
+}
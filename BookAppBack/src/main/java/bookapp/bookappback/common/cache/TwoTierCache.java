@@ -0,0 +1,330 @@
+package bookapp.bookappback.common.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 프로세스 내 Caffeine(L1) + Redis(L2) 2단 캐시.
+ *
+ * 조회: L1 → L2 → (valueLoader) 순서로 내려가며, 아래 단계에서 찾은 값은 위 단계에 채운다.
+ * 쓰기/무효화: L2 와 L1 모두에 반영하고, CacheInvalidationBus 로 다른 인스턴스의 L1 도 지운다.
+ * 버스가 없거나 메시지가 유실되면 다른 인스턴스의 L1 은 자체 TTL 로 만료되므로 L1 TTL 은 L2 보다 짧게 잡는다.
+ * L1 키는 인스턴스 간에 주고받을 수 있도록 문자열(String.valueOf(key))로 정규화한다.
+ *
+ * 미스 적재(get(key, loader), @Cacheable(sync = true))는 키별 single-flight 로 동작한다.
+ * 같은 키를 동시에 요청한 스레드는 먼저 온 한 스레드의 적재 결과를 함께 받는다.
+ * loadLock 이 있으면 인스턴스 간에도 Redis 락으로 적재를 한 번으로 줄인다.
+ *
+ * softTtl 이 있으면 값은 CacheEnvelope(soft 만료 시각 포함)로 저장된다 (stale-while-revalidate).
+ * soft 만료가 지난 값은 그대로 반환하면서 loader 로 백그라운드 갱신을 한 번 예약하고,
+ * hard 만료(L2 TTL)로 값이 사라진 경우에만 호출자가 적재를 기다린다.
+ * 백그라운드 갱신은 loader 를 다른 스레드에서 호출하므로, loader 는 호출 스레드 상태에 의존하면 안 된다.
+ *
+ * 단계별 적중/미스는 cache.tier.gets{cache, tier=l1|l2, result=hit|miss},
+ * 실제 적재 수는 cache.loads{cache}, 합류한 대기 수는 cache.loads.coalesced{cache},
+ * soft 만료로 예약한 갱신 수는 cache.refreshes{cache} 로 기록한다.
+ */
+@Slf4j
+public class TwoTierCache implements org.springframework.cache.Cache {
+
+    /**
+     * 선택 기능.
+     *
+     * @param invalidationBus  다른 인스턴스 L1 무효화 (null 이면 사용 안 함)
+     * @param loadLock         인스턴스 간 적재 락 (null 이면 인스턴스 내 single-flight 만)
+     * @param softTtl          stale-while-revalidate 기준 (null 이면 사용 안 함)
+     * @param refreshExecutor  soft 만료 갱신 실행기 (softTtl 사용 시 필수)
+     */
+    public record Options(CacheInvalidationBus invalidationBus,
+                          RedisLoadLock loadLock,
+                          Duration softTtl,
+                          Executor refreshExecutor) {
+
+        public static final Options NONE = new Options(null, null, null, null);
+    }
+
+    private final String name;
+    private final Cache<String, Object> local;
+    private final org.springframework.cache.Cache remote;
+    private final Options options;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter l1Hit;
+    private final Counter l1Miss;
+    private final Counter l2Hit;
+    private final Counter l2Miss;
+    private final Counter loads;
+    private final Counter coalesced;
+    private final Counter refreshes;
+
+    public TwoTierCache(String name,
+                        Cache<String, Object> local,
+                        org.springframework.cache.Cache remote,
+                        MeterRegistry meterRegistry) {
+        this(name, local, remote, meterRegistry, Options.NONE);
+    }
+
+    public TwoTierCache(String name,
+                        Cache<String, Object> local,
+                        org.springframework.cache.Cache remote,
+                        MeterRegistry meterRegistry,
+                        Options options) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+        this.options = options;
+        this.l1Hit = counter(meterRegistry, "l1", "hit");
+        this.l1Miss = counter(meterRegistry, "l1", "miss");
+        this.l2Hit = counter(meterRegistry, "l2", "hit");
+        this.l2Miss = counter(meterRegistry, "l2", "miss");
+        this.loads = meterRegistry.counter("cache.loads", "cache", name);
+        this.coalesced = meterRegistry.counter("cache.loads.coalesced", "cache", name);
+        this.refreshes = meterRegistry.counter("cache.refreshes", "cache", name);
+    }
+
+    private Counter counter(MeterRegistry registry, String tier, String result) {
+        return Counter.builder("cache.tier.gets")
+                .tag("cache", name)
+                .tag("tier", tier)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return remote.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object stored = lookup(key);
+        return stored != null ? new SimpleValueWrapper(unwrap(stored)) : null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        Object stored = lookup(key);
+        Object value = stored != null ? unwrap(stored) : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object stored = lookup(key);
+        if (stored != null) {
+            if (stored instanceof CacheEnvelope envelope && envelope.isStale(System.currentTimeMillis())) {
+                scheduleRefresh(key, valueLoader);
+            }
+            return (T) unwrap(stored);
+        }
+
+        String localKey = localKey(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(localKey, flight);
+        if (existing != null) {
+            coalesced.increment();
+            return (T) await(existing);
+        }
+
+        try {
+            Object cached = local.getIfPresent(localKey);
+            Object value = cached != null
+                    ? unwrap(cached)
+                    : options.loadLock() != null
+                            ? loadWithLock(key, localKey, valueLoader)
+                            : load(key, valueLoader);
+            flight.complete(value);
+            return (T) value;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(localKey, flight);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value == null) {
+            evict(key);
+            return;
+        }
+        Object stored = wrap(value);
+        remote.put(key, stored);
+        local.put(localKey(key), stored);
+        if (options.invalidationBus() != null) {
+            options.invalidationBus().publishEvict(name, localKey(key));
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        remote.evict(key);
+        local.invalidate(localKey(key));
+        if (options.invalidationBus() != null) {
+            options.invalidationBus().publishEvict(name, localKey(key));
+        }
+    }
+
+    @Override
+    public void clear() {
+        remote.clear();
+        local.invalidateAll();
+        if (options.invalidationBus() != null) {
+            options.invalidationBus().publishClear(name);
+        }
+    }
+
+    /** 다른 인스턴스의 무효화 메시지 수신 시 — L1 만 지운다. key 가 null 이면 전체. */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            local.invalidateAll();
+        } else {
+            local.invalidate(key);
+        }
+    }
+
+    // ── 조회/적재 ───────────────────────────────────────────────────────────
+
+    /** L1 → L2 순으로 저장된 원본(엔벨로프 포함)을 찾는다. 없으면 null. */
+    private Object lookup(Object key) {
+        String localKey = localKey(key);
+        Object cached = local.getIfPresent(localKey);
+        if (cached != null) {
+            l1Hit.increment();
+            return cached;
+        }
+        l1Miss.increment();
+
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null || wrapper.get() == null) {
+            l2Miss.increment();
+            return null;
+        }
+        l2Hit.increment();
+        local.put(localKey, wrapper.get());
+        return wrapper.get();
+    }
+
+    private Object await(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw e;
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        loads.increment();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    // 다른 인스턴스가 락을 쥐고 있으면 L2 에 값이 채워지기를 기다리고, 시간 초과 시 직접 적재한다
+    private Object loadWithLock(Object key, String localKey, Callable<?> valueLoader) {
+        RedisLoadLock loadLock = options.loadLock();
+        String token = loadLock.tryAcquire(name, localKey);
+        if (token != null) {
+            try {
+                ValueWrapper filled = remote.get(key);
+                if (filled != null && filled.get() != null) {
+                    local.put(localKey, filled.get());
+                    return unwrap(filled.get());
+                }
+                return load(key, valueLoader);
+            } finally {
+                loadLock.release(name, localKey, token);
+            }
+        }
+
+        long deadline = System.nanoTime() + loadLock.waitTimeout().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(loadLock.pollInterval().toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            ValueWrapper filled = remote.get(key);
+            if (filled != null && filled.get() != null) {
+                coalesced.increment();
+                local.put(localKey, filled.get());
+                return unwrap(filled.get());
+            }
+        }
+        return load(key, valueLoader);
+    }
+
+    /** soft 만료 갱신 — 같은 키의 적재/갱신이 진행 중이면 예약하지 않는다. 실패 시 기존 값을 유지한다. */
+    private void scheduleRefresh(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(localKey, flight) != null) {
+            return;
+        }
+        try {
+            options.refreshExecutor().execute(() -> {
+                try {
+                    flight.complete(load(key, valueLoader));
+                } catch (RuntimeException e) {
+                    log.warn("[Cache:{}] 백그라운드 갱신 실패 — 기존 값 유지 [key={}]: {}", name, localKey, e.getMessage());
+                    flight.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(localKey, flight);
+                }
+            });
+            refreshes.increment();
+        } catch (RejectedExecutionException e) {
+            // 갱신 큐가 가득 차면 이번 요청은 건너뛰고 다음 조회 때 다시 시도한다
+            inFlight.remove(localKey, flight);
+            flight.complete(null);
+        }
+    }
+
+    private Object wrap(Object value) {
+        Duration softTtl = options.softTtl();
+        return softTtl != null
+                ? new CacheEnvelope(value, System.currentTimeMillis() + softTtl.toMillis())
+                : value;
+    }
+
+    // 엔벨로프 도입 전에 저장된 값은 그대로 (soft 만료 없음)
+    private static Object unwrap(Object stored) {
+        return stored instanceof CacheEnvelope envelope ? envelope.getValue() : stored;
+    }
+
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
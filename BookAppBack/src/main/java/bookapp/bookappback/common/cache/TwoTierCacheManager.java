@@ -0,0 +1,95 @@
+package bookapp.bookappback.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Redis CacheManager 를 감싸, 지정한 캐시에만 Caffeine 근거리 캐시(L1)를 덧붙인다.
+ * 나머지 캐시는 기존처럼 Redis 만 사용한다.
+ * invalidationBus 가 있으면 다른 인스턴스의 쓰기/무효화를 받아 자기 L1 에서 지운다.
+ */
+public class TwoTierCacheManager implements CacheManager {
+
+    /**
+     * 2단 캐시 설정.
+     *
+     * @param maximumSize         L1 최대 엔트리 수
+     * @param ttl                 L1 쓰기 후 만료 시간
+     * @param distributedLoadLock 미스 적재를 인스턴스 간에도 한 번으로 줄일지 (Redis 락)
+     * @param softTtl             stale-while-revalidate 기준. null 이면 L2 TTL 에서 바로 만료
+     */
+    public record Spec(long maximumSize, Duration ttl, boolean distributedLoadLock, Duration softTtl) {
+
+        public Spec(long maximumSize, Duration ttl) {
+            this(maximumSize, ttl, false, null);
+        }
+    }
+
+    private final CacheManager remoteManager;
+    private final Map<String, Spec> specs;
+    private final MeterRegistry meterRegistry;
+    private final CacheInvalidationBus invalidationBus;
+    private final RedisLoadLock loadLock;
+    private final Executor refreshExecutor;
+    private final Map<String, TwoTierCache> twoTierCaches = new ConcurrentHashMap<>();
+
+    public TwoTierCacheManager(CacheManager remoteManager,
+                               Map<String, Spec> specs,
+                               MeterRegistry meterRegistry,
+                               CacheInvalidationBus invalidationBus,
+                               RedisLoadLock loadLock,
+                               Executor refreshExecutor) {
+        this.remoteManager = remoteManager;
+        this.specs = specs;
+        this.meterRegistry = meterRegistry;
+        this.invalidationBus = invalidationBus;
+        this.loadLock = loadLock;
+        this.refreshExecutor = refreshExecutor;
+        if (invalidationBus != null) {
+            invalidationBus.subscribe(this::invalidateLocal);
+        }
+    }
+
+    private void invalidateLocal(String cacheName, String key) {
+        TwoTierCache cache = twoTierCaches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Spec spec = specs.get(name);
+        if (spec == null) {
+            return remoteManager.getCache(name);
+        }
+        return twoTierCaches.computeIfAbsent(name, n -> new TwoTierCache(
+                n,
+                Caffeine.newBuilder()
+                        .maximumSize(spec.maximumSize())
+                        .expireAfterWrite(spec.ttl())
+                        .build(),
+                remoteManager.getCache(n),
+                meterRegistry,
+                new TwoTierCache.Options(
+                        invalidationBus,
+                        spec.distributedLoadLock() ? loadLock : null,
+                        refreshExecutor != null ? spec.softTtl() : null,
+                        refreshExecutor
+                )
+        ));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remoteManager.getCacheNames();
+    }
+}
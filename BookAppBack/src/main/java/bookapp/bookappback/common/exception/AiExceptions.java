@@ -0,0 +1,12 @@
+package bookapp.bookappback.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class AiExceptions {
+
+    public static class AiUnavailableException extends AppException {
+        public AiUnavailableException() {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "AI_UNAVAILABLE", "AI 검색을 일시적으로 사용할 수 없습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package bookapp.bookappback.common.http;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 관측한 지연으로 동시 호출 상한을 조절하는 AIMD 리미터.
+ *
+ * 정상 응답이 오고 상한의 절반 이상을 쓰고 있으면 상한 +1 (additive increase),
+ * 느린 응답(slowCallThreshold 초과)이나 실패가 오면 상한 × backoffRatio (multiplicative decrease).
+ * 상한을 넘는 호출은 대기 없이 거절해, 느려진 upstream 앞에 요청 스레드가 쌓이지 않게 한다.
+ */
+public class AimdConcurrencyLimiter {
+
+    /**
+     * @param initialLimit      시작 상한
+     * @param minLimit          감소 하한
+     * @param maxLimit          증가 상한 (보통 커넥션 풀 크기)
+     * @param slowCallThreshold 이보다 느린 응답은 과부하 신호로 본다
+     * @param backoffRatio      감소 비율 (0~1)
+     */
+    public record Config(int initialLimit,
+                         int minLimit,
+                         int maxLimit,
+                         Duration slowCallThreshold,
+                         double backoffRatio) {
+    }
+
+    private final Config config;
+    private final long slowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+
+    public AimdConcurrencyLimiter(Config config) {
+        this.config = config;
+        this.slowNanos = config.slowCallThreshold().toNanos();
+        this.limit = config.initialLimit();
+    }
+
+    /** true 를 받았으면 onSuccess/onDropped/onIgnored 중 하나를 반드시 호출한다. */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /** 응답 수신. 느린 응답이면 상한을 줄인다. */
+    public void onSuccess(long latencyNanos) {
+        int current = inFlight.getAndDecrement();
+        if (latencyNanos > slowNanos) {
+            decrease();
+        } else if (current * 2 >= limit) {
+            increase();
+        }
+    }
+
+    /** 실패/타임아웃 — 상한을 줄인다. */
+    public void onDropped() {
+        inFlight.decrementAndGet();
+        decrease();
+    }
+
+    /** 판단 불가(구독 취소 등) — 슬롯만 반납한다. */
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    public boolean isSlow(long latencyNanos) {
+        return latencyNanos > slowNanos;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void increase() {
+        limit = Math.min(config.maxLimit(), limit + 1);
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(config.minLimit(), limit * config.backoffRatio());
+    }
+}
@@ -0,0 +1,157 @@
+package bookapp.bookappback.common.http;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * 최근 N 건 결과 기반 서킷 브레이커.
+ *
+ * CLOSED: 모두 통과. 최근 windowSize 건 중 실패(오류/5xx/느린 응답) 비율이 임계치를 넘으면 OPEN.
+ * OPEN: openDuration 동안 즉시 거절. 지나면 HALF_OPEN.
+ * HALF_OPEN: halfOpenPermits 건만 통과시켜, 모두 성공하면 CLOSED, 하나라도 실패하면 다시 OPEN.
+ *
+ * 상태 전이는 짧은 임계 구역(synchronized)에서만 일어나고 I/O 는 하지 않는다.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * @param windowSize           실패율 계산에 쓰는 최근 결과 수
+     * @param minimumCalls         이보다 적게 쌓이면 OPEN 판단을 하지 않는다
+     * @param failureRateThreshold 0~1. 이 비율 이상 실패하면 OPEN
+     * @param openDuration         OPEN 유지 시간
+     * @param halfOpenPermits      HALF_OPEN 에서 통과시킬 시험 호출 수
+     */
+    public record Config(int windowSize,
+                         int minimumCalls,
+                         double failureRateThreshold,
+                         Duration openDuration,
+                         int halfOpenPermits) {
+    }
+
+    public interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+
+    private final Config config;
+    private final TransitionListener listener;
+    private final LongSupplier nanoClock;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAtNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(Config config, TransitionListener listener) {
+        this(config, listener, System::nanoTime);
+    }
+
+    CircuitBreaker(Config config, TransitionListener listener, LongSupplier nanoClock) {
+        this.config = config;
+        this.listener = listener;
+        this.nanoClock = nanoClock;
+        this.window = new boolean[config.windowSize()];
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /** 호출 허용 여부. true 를 받았으면 onResult 또는 onIgnored 중 하나를 반드시 호출한다. */
+    public boolean tryAcquire() {
+        State from;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                return true;
+            }
+            from = state;
+            if (state == State.OPEN) {
+                if (nanoClock.getAsLong() - openedAtNanos < config.openDuration().toNanos()) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                halfOpenInFlight = 0;
+                halfOpenSuccesses = 0;
+            }
+            if (halfOpenInFlight >= config.halfOpenPermits()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        fireTransition(from, State.HALF_OPEN);
+        return true;
+    }
+
+    public void onResult(boolean failure) {
+        State from;
+        State to;
+        synchronized (this) {
+            from = state;
+            switch (state) {
+                case CLOSED -> record(failure);
+                case HALF_OPEN -> {
+                    halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+                    if (failure) {
+                        open();
+                    } else if (++halfOpenSuccesses >= config.halfOpenPermits()) {
+                        state = State.CLOSED;
+                        resetWindow();
+                    }
+                }
+                case OPEN -> { } // OPEN 전에 출발한 호출의 늦은 결과는 무시
+            }
+            to = state;
+        }
+        fireTransition(from, to);
+    }
+
+    /** 결과를 판단할 수 없는 종료(구독 취소 등) — 허가만 반납한다. */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN) {
+            halfOpenInFlight = Math.max(0, halfOpenInFlight - 1);
+        }
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowIndex]) windowFailures--;
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) windowFailures++;
+        windowIndex = (windowIndex + 1) % window.length;
+
+        if (windowCount >= config.minimumCalls()
+                && (double) windowFailures / windowCount >= config.failureRateThreshold()) {
+            open();
+        }
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAtNanos = nanoClock.getAsLong();
+        halfOpenInFlight = 0;
+        halfOpenSuccesses = 0;
+    }
+
+    private void resetWindow() {
+        windowIndex = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private void fireTransition(State from, State to) {
+        if (from != to) {
+            listener.onTransition(from, to);
+        }
+    }
+}
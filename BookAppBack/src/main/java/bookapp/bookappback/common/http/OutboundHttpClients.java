@@ -0,0 +1,195 @@
+package bookapp.bookappback.common.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 외부 HTTP 호출용 WebClient/커넥터 팩토리.
+ *
+ * upstream(Kakao, FastAPI, 정보나루)마다 이름 붙은 ConnectionProvider 를 하나씩 두고,
+ * 서비스들은 응답 타임아웃만 달리한 HttpClient 로 같은 풀을 공유한다.
+ * 풀 크기/대기열/유휴 시간은 http.client.{upstream}.* 로 덮어쓸 수 있다.
+ *
+ * 풀 지표는 reactor.netty.connection.provider.{total,active,idle,pending}.connections{name=upstream}
+ * 로 /actuator/metrics 에 노출된다.
+ *
+ * guarded upstream(FastAPI)은 builder() 로 만든 WebClient 에 UpstreamGuard(서킷 브레이커 + AIMD 동시성 제한)가
+ * 붙는다. 설정은 http.client.{upstream}.circuit.* / http.client.{upstream}.limit.*
+ */
+@Slf4j
+@Component
+public class OutboundHttpClients implements DisposableBean {
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 3_000;
+
+    /**
+     * @param maxConnections        동시 커넥션 상한 (HTTP/2 면 커넥션 수, 스트림은 다중화)
+     * @param pendingAcquireMax     커넥션을 기다릴 수 있는 요청 수. 넘으면 즉시 실패
+     * @param pendingAcquireTimeout 커넥션 대기 시간 상한
+     * @param maxIdleTime           유휴 커넥션 유지 시간. 서버 keep-alive 타임아웃보다 짧게 잡아 끊긴 커넥션 재사용을 피한다
+     * @param http2                 TLS(ALPN)로 HTTP/2 협상 시도, 실패 시 HTTP/1.1
+     */
+    public record Pool(int maxConnections,
+                       int pendingAcquireMax,
+                       Duration pendingAcquireTimeout,
+                       Duration maxIdleTime,
+                       boolean http2) {
+    }
+
+    public enum Upstream {
+        // Kakao 검색: 짧은 응답, 트래픽 대부분. HTTPS 라 HTTP/2 협상 가능
+        KAKAO("kakao", new Pool(50, 500, Duration.ofSeconds(5), Duration.ofSeconds(30), true), false),
+        // FastAPI: uvicorn keep-alive 기본 5초 → 유휴 4초. 가상 스레드 모드의 동시 AI 검색 500+ 을 대기열로 흡수
+        // 느려지면 요청 스레드가 최대 30초씩 묶이므로 서킷 브레이커 + 동시성 제한으로 빠르게 폴백
+        AI("ai", new Pool(100, 1_000, Duration.ofSeconds(10), Duration.ofSeconds(4), false), true),
+        // 도서관 정보나루: 스케줄러에서만 호출 (HTTP 전용)
+        LIBRARY("library", new Pool(10, 50, Duration.ofSeconds(10), Duration.ofSeconds(10), false), false);
+
+        private final String id;
+        private final Pool defaults;
+        private final boolean guarded;
+
+        Upstream(String id, Pool defaults, boolean guarded) {
+            this.id = id;
+            this.defaults = defaults;
+            this.guarded = guarded;
+        }
+
+        public String id() {
+            return id;
+        }
+
+        public Pool defaults() {
+            return defaults;
+        }
+
+        public boolean guarded() {
+            return guarded;
+        }
+    }
+
+    private final ObjectProvider<WebClient.Builder> webClientBuilders;
+    private final Map<Upstream, Pool> pools = new EnumMap<>(Upstream.class);
+    private final Map<Upstream, ConnectionProvider> providers = new EnumMap<>(Upstream.class);
+    private final Map<Upstream, UpstreamGuard> guards = new EnumMap<>(Upstream.class);
+
+    public OutboundHttpClients(ObjectProvider<WebClient.Builder> webClientBuilders,
+                               Environment env,
+                               MeterRegistry meterRegistry) {
+        this.webClientBuilders = webClientBuilders;
+        for (Upstream upstream : Upstream.values()) {
+            Pool pool = resolve(env, upstream);
+            pools.put(upstream, pool);
+            providers.put(upstream, ConnectionProvider.builder(upstream.id())
+                    .maxConnections(pool.maxConnections())
+                    .pendingAcquireMaxCount(pool.pendingAcquireMax())
+                    .pendingAcquireTimeout(pool.pendingAcquireTimeout())
+                    .maxIdleTime(pool.maxIdleTime())
+                    .evictInBackground(Duration.ofSeconds(30))
+                    .metrics(true)
+                    .build());
+            log.info("[HttpClient:{}] pool={}", upstream.id(), pool);
+
+            if (upstream.guarded() && env.getProperty("http.client." + upstream.id() + ".guard.enabled", Boolean.class, true)) {
+                guards.put(upstream, guard(env, upstream, pool, meterRegistry));
+            }
+        }
+    }
+
+    /** Spring 이 구성한 WebClient.Builder(코덱/관측 설정 포함)에 upstream 커넥터(와 가드)를 붙여 반환한다. */
+    public WebClient.Builder builder(Upstream upstream, Duration responseTimeout) {
+        WebClient.Builder builder = webClientBuilders.getObject()
+                .clientConnector(connector(upstream, responseTimeout));
+        UpstreamGuard guard = guards.get(upstream);
+        return guard != null ? builder.filter(guard) : builder;
+    }
+
+    /**
+     * 가드 없이 같은 커넥션 풀만 쓰는 빌더. 응답이 원래 느린 배치 호출이
+     * 대화형 호출의 서킷 브레이커/동시성 리미터를 느린 응답으로 흔들지 않게 할 때 쓴다.
+     * 동시성은 호출 측이 직접 제한해야 한다.
+     */
+    public WebClient.Builder unguardedBuilder(Upstream upstream, Duration responseTimeout) {
+        return webClientBuilders.getObject()
+                .clientConnector(connector(upstream, responseTimeout));
+    }
+
+    public ReactorClientHttpConnector connector(Upstream upstream, Duration responseTimeout) {
+        return new ReactorClientHttpConnector(httpClient(upstream, responseTimeout));
+    }
+
+    /** 같은 upstream 이면 응답 타임아웃이 달라도 커넥션 풀은 공유된다. */
+    public HttpClient httpClient(Upstream upstream, Duration responseTimeout) {
+        HttpClient client = HttpClient.create(providers.get(upstream))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, CONNECT_TIMEOUT_MILLIS)
+                .keepAlive(true);
+        if (responseTimeout != null) {
+            client = client.responseTimeout(responseTimeout);
+        }
+        if (pools.get(upstream).http2()) {
+            client = client.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        }
+        return client;
+    }
+
+    public Pool pool(Upstream upstream) {
+        return pools.get(upstream);
+    }
+
+    /** 가드가 없는 upstream 이면 null */
+    public UpstreamGuard guard(Upstream upstream) {
+        return guards.get(upstream);
+    }
+
+    @Override
+    public void destroy() {
+        providers.values().forEach(ConnectionProvider::dispose);
+    }
+
+    private static Pool resolve(Environment env, Upstream upstream) {
+        Pool d = upstream.defaults();
+        String prefix = "http.client." + upstream.id() + ".";
+        return new Pool(
+                env.getProperty(prefix + "max-connections", Integer.class, d.maxConnections()),
+                env.getProperty(prefix + "pending-acquire-max", Integer.class, d.pendingAcquireMax()),
+                env.getProperty(prefix + "pending-acquire-timeout", Duration.class, d.pendingAcquireTimeout()),
+                env.getProperty(prefix + "max-idle-time", Duration.class, d.maxIdleTime()),
+                env.getProperty(prefix + "http2", Boolean.class, d.http2())
+        );
+    }
+
+    private static UpstreamGuard guard(Environment env, Upstream upstream, Pool pool, MeterRegistry meterRegistry) {
+        String circuit = "http.client." + upstream.id() + ".circuit.";
+        String limit = "http.client." + upstream.id() + ".limit.";
+        CircuitBreaker.Config circuitConfig = new CircuitBreaker.Config(
+                env.getProperty(circuit + "window-size", Integer.class, 50),
+                env.getProperty(circuit + "minimum-calls", Integer.class, 20),
+                env.getProperty(circuit + "failure-rate-threshold", Double.class, 0.5),
+                env.getProperty(circuit + "open-duration", Duration.class, Duration.ofSeconds(10)),
+                env.getProperty(circuit + "half-open-permits", Integer.class, 3)
+        );
+        AimdConcurrencyLimiter.Config limitConfig = new AimdConcurrencyLimiter.Config(
+                env.getProperty(limit + "initial", Integer.class, 20),
+                env.getProperty(limit + "min", Integer.class, 5),
+                env.getProperty(limit + "max", Integer.class, pool.maxConnections()),
+                env.getProperty(limit + "slow-call-threshold", Duration.class, Duration.ofSeconds(5)),
+                env.getProperty(limit + "backoff-ratio", Double.class, 0.9)
+        );
+        log.info("[HttpClient:{}] guard circuit={} limit={}", upstream.id(), circuitConfig, limitConfig);
+        return new UpstreamGuard(upstream.id(), circuitConfig, limitConfig, meterRegistry);
+    }
+}
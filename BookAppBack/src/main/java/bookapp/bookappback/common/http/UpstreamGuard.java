@@ -0,0 +1,170 @@
+package bookapp.bookappback.common.http;
+
+import bookapp.bookappback.common.http.UpstreamRejectedException.Reason;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * upstream 호출 앞단의 서킷 브레이커 + 적응형 동시성 제한 (WebClient 필터).
+ *
+ * 호출 전: 브레이커가 OPEN 이거나 동시 호출이 리미터 상한에 닿으면 요청을 보내지 않고
+ * UpstreamRejectedException 으로 즉시 실패한다.
+ * 호출 후: 결과(오류/5xx)와 지연을 브레이커와 리미터에 반영한다.
+ * 느린 응답(slowCallThreshold 초과)은 브레이커에서 실패로 센다.
+ * 구독 취소(호출 측 timeout 등)는 느린 경우에만 느린 응답으로 세고, 아니면 슬롯만 반납한다.
+ *
+ * 필터로 건 일반(버퍼링) 응답은 응답 헤더 수신 시점에 정산한다. FastAPI 가 본문을 다 만든 뒤 헤더를 보내기 때문이다.
+ * 스트리밍 응답은 헤더가 작업 시작 전에 오므로 필터 없는 클라이언트로 호출하고 {@link #guardStream} 으로 감싼다.
+ * 이때는 본문이 끝날 때(완료/오류/취소) 정산하고, 실패 이벤트(예: NDJSON error 줄)는 실패로 센다.
+ *
+ * 지표: http.client.circuit.state{upstream} (0 CLOSED, 1 HALF_OPEN, 2 OPEN),
+ * http.client.circuit.transitions{upstream, from, to}, http.client.rejections{upstream, reason},
+ * http.client.concurrency.limit{upstream}, http.client.concurrency.inflight{upstream}
+ */
+@Slf4j
+public class UpstreamGuard implements ExchangeFilterFunction {
+
+    private final String upstream;
+    private final CircuitBreaker circuitBreaker;
+    private final AimdConcurrencyLimiter limiter;
+    private final MeterRegistry meterRegistry;
+
+    public UpstreamGuard(String upstream,
+                         CircuitBreaker.Config circuitConfig,
+                         AimdConcurrencyLimiter.Config limitConfig,
+                         MeterRegistry meterRegistry) {
+        this.upstream = upstream;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(circuitConfig, this::onTransition);
+        this.limiter = new AimdConcurrencyLimiter(limitConfig);
+
+        Gauge.builder("http.client.circuit.state", circuitBreaker, cb -> cb.state().ordinal())
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("http.client.concurrency.limit", limiter, AimdConcurrencyLimiter::limit)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+        Gauge.builder("http.client.concurrency.inflight", limiter, AimdConcurrencyLimiter::inFlight)
+                .tag("upstream", upstream)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Permit permit;
+            try {
+                permit = acquire();
+            } catch (UpstreamRejectedException e) {
+                return Mono.error(e);
+            }
+            return next.exchange(request)
+                    .doOnSuccess(response -> {
+                        if (response != null && response.statusCode().is5xxServerError()) {
+                            permit.onFailure();
+                        } else {
+                            permit.onSuccess();
+                        }
+                    })
+                    .doOnError(e -> permit.onFailure())
+                    .doOnCancel(permit::onCancel);
+        });
+    }
+
+    /**
+     * 스트리밍 호출을 감싼다. 구독 시 허가를 받고, 본문이 끝날 때 정산한다.
+     * call 은 이 가드 필터가 걸리지 않은 클라이언트로 만들어야 한다 (이중 정산 방지).
+     *
+     * @param call         구독할 때마다 새 요청을 보내는 본문 스트림
+     * @param failureEvent 이 조건에 맞는 이벤트를 받으면 그 시점에 실패로 정산한다
+     * @throws UpstreamRejectedException (스트림 오류로) 서킷 OPEN 또는 동시성 상한일 때
+     */
+    public <T> Flux<T> guardStream(Supplier<Flux<T>> call, Predicate<? super T> failureEvent) {
+        return Flux.using(
+                this::acquire,
+                permit -> call.get()
+                        .doOnNext(event -> {
+                            if (failureEvent.test(event)) permit.onFailure();
+                        })
+                        .doOnComplete(permit::onSuccess)
+                        .doOnError(e -> permit.onFailure()),
+                Permit::onCancel);
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.state();
+    }
+
+    public int limit() {
+        return limiter.limit();
+    }
+
+    /** @throws UpstreamRejectedException 서킷 OPEN 또는 동시성 상한일 때 */
+    private Permit acquire() {
+        if (!circuitBreaker.tryAcquire()) {
+            throw reject(Reason.CIRCUIT_OPEN);
+        }
+        if (!limiter.tryAcquire()) {
+            circuitBreaker.onIgnored();
+            throw reject(Reason.CONCURRENCY_LIMIT);
+        }
+        return new Permit();
+    }
+
+    private UpstreamRejectedException reject(Reason reason) {
+        meterRegistry.counter("http.client.rejections", "upstream", upstream, "reason", reason.tag()).increment();
+        return new UpstreamRejectedException(upstream, reason);
+    }
+
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        meterRegistry.counter("http.client.circuit.transitions",
+                "upstream", upstream, "from", from.name(), "to", to.name()).increment();
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("[Circuit:{}] {} → OPEN — 호출을 차단하고 폴백으로 응답합니다", upstream, from);
+        } else {
+            log.info("[Circuit:{}] {} → {}", upstream, from, to);
+        }
+    }
+
+    /** 브레이커 + 리미터 허가 한 건. 먼저 도착한 결과로 한 번만 정산한다. */
+    private final class Permit {
+        private final long start = System.nanoTime();
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        void onSuccess() {
+            if (!settled.compareAndSet(false, true)) return;
+            long latency = System.nanoTime() - start;
+            limiter.onSuccess(latency);
+            circuitBreaker.onResult(limiter.isSlow(latency));
+        }
+
+        void onFailure() {
+            if (!settled.compareAndSet(false, true)) return;
+            limiter.onDropped();
+            circuitBreaker.onResult(true);
+        }
+
+        void onCancel() {
+            if (!settled.compareAndSet(false, true)) return;
+            long latency = System.nanoTime() - start;
+            if (limiter.isSlow(latency)) {
+                limiter.onDropped();
+                circuitBreaker.onResult(true);
+            } else {
+                limiter.onIgnored();
+                circuitBreaker.onIgnored();
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package bookapp.bookappback.common.http;
+
+import lombok.Getter;
+
+/**
+ * UpstreamGuard 가 호출을 보내지 않고 거절했을 때 발생한다.
+ * 호출 측은 기존 실패 폴백(빈 결과, CF-only 등)으로 바로 넘어가면 된다.
+ */
+@Getter
+public class UpstreamRejectedException extends RuntimeException {
+
+    public enum Reason {
+        CIRCUIT_OPEN("circuit_open"),
+        CONCURRENCY_LIMIT("concurrency_limit");
+
+        private final String tag;
+
+        Reason(String tag) {
+            this.tag = tag;
+        }
+
+        public String tag() {
+            return tag;
+        }
+    }
+
+    private final String upstream;
+    private final Reason reason;
+
+    public UpstreamRejectedException(String upstream, Reason reason) {
+        super(upstream + " 호출 거절: " + reason.tag(), null, false, false);
+        this.upstream = upstream;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,60 @@
+package bookapp.bookappback.common.jpa;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * 큰 테이블을 id 순 고정 크기 청크로 훑는 keyset 페이지네이션 스캐너.
+ *
+ * 각 청크는 "id > 직전 청크의 마지막 id ORDER BY id LIMIT n" 으로 읽으므로 OFFSET 처럼 뒤로 갈수록 느려지지 않고,
+ * 스캔 도중 행이 조건에서 빠져도(예: embedded=true 로 표시) 건너뛰는 행이 생기지 않는다.
+ * 청크를 처리한 뒤 영속성 컨텍스트를 비워, 엔티티를 읽는 쿼리라도 1차 캐시가 테이블 크기만큼 커지지 않는다.
+ * 쿼리는 가능하면 projection(DTO)으로 만들어 엔티티/프록시 생성 자체를 피한다.
+ *
+ * 스캔 도중 영속성 컨텍스트가 비워지므로, 호출 측은 스캔 전에 읽은 엔티티를 스캔 뒤 변경 감지에 기대지 말아야 한다.
+ */
+@Component
+public class KeysetScanner {
+
+    /** afterId 보다 큰 id 를 오름차순으로 최대 limit 개 읽는 쿼리 */
+    @FunctionalInterface
+    public interface ChunkQuery<T> {
+        List<T> fetch(long afterId, Limit limit);
+    }
+
+    private final EntityManager entityManager;
+
+    public KeysetScanner(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * @param chunkSize 청크 크기
+     * @param query     keyset 쿼리
+     * @param idOf      행의 정렬 키(id)
+     * @param consumer  청크 단위 처리
+     * @return 읽은 행 수
+     */
+    public <T> long scan(int chunkSize, ChunkQuery<T> query, ToLongFunction<T> idOf, Consumer<List<T>> consumer) {
+        long afterId = Long.MIN_VALUE;
+        long total = 0;
+        while (true) {
+            List<T> chunk = query.fetch(afterId, Limit.of(chunkSize));
+            if (chunk.isEmpty()) {
+                return total;
+            }
+            consumer.accept(chunk);
+            total += chunk.size();
+            afterId = idOf.applyAsLong(chunk.get(chunk.size() - 1));
+            entityManager.clear();
+            if (chunk.size() < chunkSize) {
+                return total;
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package bookapp.bookappback.common.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate 가 실행하는 SQL 문 수를 스레드별로 센다.
+ *
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록되며,
+ * 호출 측은 작업 전후 {@link #current()} 값의 차이로 해당 작업의 DB 호출 수를 구한다.
+ * SQL 은 변경하지 않고 그대로 돌려준다.
+ */
+public class QueryCountInspector implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNTER = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNTER.get()[0]++;
+        return sql;
+    }
+
+    /** 현재 스레드에서 지금까지 실행된 SQL 문 수 (단조 증가) */
+    public static long current() {
+        return COUNTER.get()[0];
+    }
+}
@@ -0,0 +1,104 @@
+package bookapp.bookappback.common.ranking;
+
+import java.util.Arrays;
+
+/**
+ * long → double 누적용 오픈 어드레싱 해시. 박싱 없이 후보 id 별 점수 합을 모은다.
+ *
+ * 사용한 슬롯을 따로 기록해 두므로 clear() 가 용량이 아니라 채운 개수에 비례한다 —
+ * 하나를 만들어 두고 후보 집합마다 비우며 재사용할 수 있다.
+ * 키 Long.MIN_VALUE 는 빈 슬롯 표시로 쓰므로 넣을 수 없다. 스레드 안전하지 않다.
+ */
+public final class LongDoubleAccumulator {
+
+    private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+    private long[] keys;
+    private double[] values;
+    private int[] usedSlots;
+    private int size;
+
+    public LongDoubleAccumulator() {
+        this(64);
+    }
+
+    /** @param capacity 초기 슬롯 수 (2의 거듭제곱으로 올림) */
+    public LongDoubleAccumulator(int capacity) {
+        int slots = Integer.highestOneBit(Math.max(4, capacity - 1)) << 1;
+        keys = new long[slots];
+        values = new double[slots];
+        usedSlots = new int[slots / 2 + 1];
+        Arrays.fill(keys, EMPTY_KEY);
+    }
+
+    public void add(long key, double delta) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY_KEY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY_KEY) {
+            keys[i] = key;
+            usedSlots[size++] = i;
+        }
+        values[i] += delta;
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    /** @return 누적값, 없으면 0 */
+    public double get(long key) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        while (keys[i] != EMPTY_KEY) {
+            if (keys[i] == key) return values[i];
+            i = (i + 1) & mask;
+        }
+        return 0.0;
+    }
+
+    /** 채운 슬롯만 비운다 (용량은 유지) */
+    public void clear() {
+        for (int n = 0; n < size; n++) {
+            int slot = usedSlots[n];
+            keys[slot] = EMPTY_KEY;
+            values[slot] = 0.0;
+        }
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** 삽입 순서상 n 번째 키 (0 ≤ n < size) */
+    public long keyAt(int n) {
+        return keys[usedSlots[n]];
+    }
+
+    /** 삽입 순서상 n 번째 누적값 (0 ≤ n < size) */
+    public double valueAt(int n) {
+        return values[usedSlots[n]];
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        double[] oldValues = values;
+        int[] oldUsed = usedSlots;
+        int oldSize = size;
+        keys = new long[oldKeys.length * 2];
+        values = new double[oldValues.length * 2];
+        usedSlots = new int[keys.length / 2 + 1];
+        Arrays.fill(keys, EMPTY_KEY);
+        size = 0;
+        for (int n = 0; n < oldSize; n++) {
+            add(oldKeys[oldUsed[n]], oldValues[oldUsed[n]]);
+        }
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
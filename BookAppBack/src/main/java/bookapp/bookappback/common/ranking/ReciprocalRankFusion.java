@@ -0,0 +1,30 @@
+package bookapp.bookappback.common.ranking;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reciprocal Rank Fusion.
+ *
+ *   score(id) = Σ_list 1/(k + rank_list(id))   (rank 는 1부터)
+ *
+ * 목록에 없는 항은 더하지 않는다. 결과는 점수 상위 limit 개 (동점은 id 오름차순).
+ */
+public final class ReciprocalRankFusion {
+
+    private ReciprocalRankFusion() {
+    }
+
+    @SafeVarargs
+    public static List<Long> fuse(int k, int limit, List<Long>... rankedLists) {
+        Map<Long, Double> scores = new HashMap<>();
+        for (List<Long> ranked : rankedLists) {
+            for (int i = 0; i < ranked.size(); i++) {
+                scores.merge(ranked.get(i), 1.0 / (k + i + 1), Double::sum);
+            }
+        }
+
+        return TopK.topIds(scores, limit);
+    }
+}
@@ -0,0 +1,135 @@
+package bookapp.bookappback.common.ranking;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * (long id, double score) 후보 중 점수 상위 k 개만 남기는 선택기.
+ *
+ * 크기 k 의 최소 힙을 long[]/double[] 병렬 배열로 유지하므로 박싱이 없고,
+ * n 개 후보에 대해 O(n log k) 시간, O(k) 메모리를 쓴다.
+ * 전체 정렬(O(n log n) + 후보마다 Map.Entry 할당)을 대신한다.
+ *
+ * 동점이면 id 가 작은 쪽을 우선한다. 스레드 안전하지 않다.
+ */
+public final class TopK {
+
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long id, double score);
+    }
+
+    /** 점수 맵에서 상위 limit 개 id 를 점수 내림차순으로 고른다. */
+    public static List<Long> topIds(Map<Long, Double> scores, int limit) {
+        TopK topK = new TopK(limit);
+        scores.forEach(topK::offer);
+        long[] ids = topK.drainIds();
+        List<Long> result = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            result.add(id);
+        }
+        return result;
+    }
+
+    private final int k;
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    public TopK(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must be >= 0: " + k);
+        }
+        this.k = k;
+        this.ids = new long[k];
+        this.scores = new double[k];
+    }
+
+    public void offer(long id, double score) {
+        if (size < k) {
+            ids[size] = id;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (k > 0 && better(id, score, ids[0], scores[0])) {
+            ids[0] = id;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** 상위 k 안에 들기 위한 현재 최저 점수. 아직 k 개가 안 찼으면 음의 무한대. */
+    public double threshold() {
+        return size < k ? Double.NEGATIVE_INFINITY : scores[0];
+    }
+
+    /** 점수 내림차순 id 배열을 돌려주고 비운다. */
+    public long[] drainIds() {
+        int n = sortInPlace();
+        long[] out = new long[n];
+        System.arraycopy(ids, 0, out, 0, n);
+        return out;
+    }
+
+    /** 점수 내림차순으로 visitor 에 넘기고 비운다. */
+    public void drain(Visitor visitor) {
+        int n = sortInPlace();
+        for (int i = 0; i < n; i++) {
+            visitor.visit(ids[i], scores[i]);
+        }
+    }
+
+    // 힙 정렬: 최저(루트)를 끝으로 보내며 줄이면 배열 앞쪽부터 내림차순이 된다
+    private int sortInPlace() {
+        int n = size;
+        while (size > 1) {
+            swap(0, --size);
+            siftDown(0);
+        }
+        size = 0;
+        return n;
+    }
+
+    // a 가 b 보다 순위가 높은가 (점수 높음, 동점이면 id 작음)
+    private static boolean better(long idA, double scoreA, long idB, double scoreB) {
+        int cmp = Double.compare(scoreA, scoreB);
+        return cmp > 0 || (cmp == 0 && idA < idB);
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!better(ids[parent], scores[parent], ids[i], scores[i])) break;
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int worst = left;
+            int right = left + 1;
+            if (right < size && better(ids[worst], scores[worst], ids[right], scores[right])) {
+                worst = right;
+            }
+            if (!better(ids[i], scores[i], ids[worst], scores[worst])) break;
+            swap(i, worst);
+            i = worst;
+        }
+    }
+
+    private void swap(int a, int b) {
+        long id = ids[a];
+        ids[a] = ids[b];
+        ids[b] = id;
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -0,0 +1,243 @@
+package bookapp.bookappback.common.scheduling;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * 배치 작업(@Scheduled)을 클러스터에서 한 인스턴스만 돌리기 위한 Redis lease 락.
+ *
+ * 획득: SET scheduler-lock:{job} token NX PX lease 와 같은 Lua 스크립트에서 단조 증가하는 fencing token 을 함께 받는다.
+ * 토큰은 max(Redis 시각(µs), 직전 토큰 + 1) 이라 Redis 가 fence 키를 잃어도(비영속 재시작) 계속 커진다.
+ * 잡고 있는 동안 lease/3 마다 토큰이 같을 때만 만료를 연장하고,
+ * 연장에 실패하면(GC 정지, Redis 재시작 등으로 다른 인스턴스가 가져감) lease 를 잃은 것으로 표시한다.
+ *
+ * checkHeld() 는 창을 좁힐 뿐 닫지 못한다 — 확인 직후 멈췄다 깨어난 이전 보유자가 쓸 수 있다.
+ * 그래서 테이블을 교체하는 쓰기(book_similarity 교체, 정보나루 스냅샷 발행)는 같은 트랜잭션에서
+ * JobFence.advance(lease) 로 저장소에 토큰을 기록하고, 더 작은 토큰의 늦은 쓰기를 DB 가 거절한다.
+ * 임베딩 재시도의 쓰기(embedded=true 표시)는 실제로 임베딩된 책만 표시하는 멱등 쓰기라 checkHeld() 만 쓴다.
+ *
+ * Redis 오류 시에는 실행하지 않는다 (두 번 도는 것보다 한 주기 건너뛰는 편이 싸다).
+ * 단일 인스턴스라 Redis 없이 돌려야 하면 scheduler.lock.enabled=false 로 끈다 (로컬 lease, 항상 획득).
+ *
+ * 지표: scheduler.lock.acquire{job, result=acquired|busy|error}, scheduler.lock.held{job} (이 인스턴스가 보유 중이면 1),
+ * scheduler.lock.held.time{job}, scheduler.lock.lost{job}
+ */
+@Slf4j
+@Component
+public class ClusterJobLock implements DisposableBean {
+
+    static final DefaultRedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('set', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then "
+                    + "local t = redis.call('time') "
+                    + "local fence = math.max(tonumber(t[1]) * 1000000 + tonumber(t[2]), tonumber(redis.call('get', KEYS[2]) or '0') + 1) "
+                    + "redis.call('set', KEYS[2], string.format('%.0f', fence)) "
+                    + "return fence else return 0 end",
+            Long.class
+    );
+    static final DefaultRedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class
+    );
+    static final DefaultRedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class
+    );
+
+    /** lease 를 잃은 뒤 작업을 멈추게 할 때 던진다 (runExclusive 가 받아 로그만 남긴다) */
+    public static class LeaseLostException extends RuntimeException {
+        public LeaseLostException(String job) {
+            super("scheduler lock lease lost: " + job);
+        }
+    }
+
+    public final class Lease implements AutoCloseable {
+
+        private final String job;
+        private final String token;
+        private final long fencingToken;
+        private final long acquiredAtNanos = System.nanoTime();
+        private volatile boolean held = true;
+        private volatile ScheduledFuture<?> renewal;
+
+        private Lease(String job, String token, long fencingToken) {
+            this.job = job;
+            this.token = token;
+            this.fencingToken = fencingToken;
+        }
+
+        public String job() {
+            return job;
+        }
+
+        /** 획득마다 커지는 값. 늦게 도착한 이전 보유자의 쓰기를 저장소에서 거절할 때 쓴다 (JobFence) */
+        public long fencingToken() {
+            return fencingToken;
+        }
+
+        public boolean isHeld() {
+            return held;
+        }
+
+        public void checkHeld() {
+            if (!held) {
+                throw new LeaseLostException(job);
+            }
+        }
+
+        @Override
+        public void close() {
+            if (renewal != null) {
+                renewal.cancel(false);
+            }
+            boolean wasHeld = held;
+            held = false;
+            heldFlag(job).set(0);
+            meterRegistry.timer("scheduler.lock.held.time", "job", job)
+                    .record(System.nanoTime() - acquiredAtNanos, TimeUnit.NANOSECONDS);
+            if (enabled && wasHeld) {
+                try {
+                    redisTemplate.execute(RELEASE, List.of(lockKey(job)), token);
+                } catch (Exception e) {
+                    log.warn("[JobLock:{}] 해제 실패 — lease 만료로 풀림: {}", job, e.getMessage());
+                }
+            }
+        }
+
+        private void renew(Duration leaseTime) {
+            if (!held) return;
+            try {
+                Long renewed = redisTemplate.execute(RENEW, List.of(lockKey(job)), token, String.valueOf(leaseTime.toMillis()));
+                if (renewed != null && renewed == 1L) return;
+            } catch (Exception e) {
+                log.warn("[JobLock:{}] lease 연장 실패: {}", job, e.getMessage());
+                return; // 일시 오류 — 남은 lease 안에 다음 연장을 다시 시도
+            }
+            held = false;
+            heldFlag(job).set(0);
+            meterRegistry.counter("scheduler.lock.lost", "job", job).increment();
+            log.warn("[JobLock:{}] lease 를 잃었습니다 (fence={}) — 작업을 중단해야 합니다", job, fencingToken);
+        }
+    }
+
+    private final StringRedisTemplate redisTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+    private final AtomicLong localFence = new AtomicLong();
+    private final Map<String, AtomicInteger> heldFlags = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "job-lock-renewer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ClusterJobLock(StringRedisTemplate redisTemplate,
+                          MeterRegistry meterRegistry,
+                          @Value("${scheduler.lock.enabled:true}") boolean enabled) {
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+    }
+
+    /** @return 획득하면 lease (try-with-resources 로 해제), 다른 인스턴스가 보유 중이거나 Redis 오류면 empty */
+    public Optional<Lease> tryAcquire(String job, Duration leaseTime) {
+        if (!enabled) {
+            // 재기동해도 scheduler_fence 에 남은 토큰보다 커지도록 시각(µs)에서 시작
+            long fence = localFence.updateAndGet(prev -> Math.max(prev + 1, System.currentTimeMillis() * 1_000));
+            return Optional.of(acquired(job, "local", fence, leaseTime));
+        }
+        String token = owner + ":" + UUID.randomUUID();
+        Long fence;
+        try {
+            fence = redisTemplate.execute(ACQUIRE, List.of(lockKey(job), fenceKey(job)), token, String.valueOf(leaseTime.toMillis()));
+        } catch (Exception e) {
+            record(job, "error");
+            log.warn("[JobLock:{}] 획득 실패 — 이번 실행은 건너뜁니다: {}", job, e.getMessage());
+            return Optional.empty();
+        }
+        if (fence == null || fence == 0L) {
+            record(job, "busy");
+            log.debug("[JobLock:{}] 다른 인스턴스가 실행 중", job);
+            return Optional.empty();
+        }
+        return Optional.of(acquired(job, token, fence, leaseTime));
+    }
+
+    /**
+     * 락을 잡은 경우에만 task 를 실행한다. task 안에서 LeaseLostException 이 나면 로그만 남기고 끝낸다.
+     *
+     * @return 실행했으면 true
+     */
+    public boolean runExclusive(String job, Duration leaseTime, Consumer<Lease> task) {
+        Optional<Lease> acquired = tryAcquire(job, leaseTime);
+        if (acquired.isEmpty()) {
+            return false;
+        }
+        try (Lease lease = acquired.get()) {
+            task.accept(lease);
+        } catch (LeaseLostException e) {
+            log.warn("[JobLock:{}] lease 를 잃어 작업을 중단했습니다", job);
+        }
+        return true;
+    }
+
+    @Override
+    public void destroy() {
+        renewer.shutdownNow();
+    }
+
+    private Lease acquired(String job, String token, long fence, Duration leaseTime) {
+        record(job, "acquired");
+        heldFlag(job).set(1);
+        Lease lease = new Lease(job, token, fence);
+        if (enabled) {
+            long period = Math.max(1, leaseTime.toMillis() / 3);
+            lease.renewal = renewer.scheduleAtFixedRate(() -> lease.renew(leaseTime), period, period, TimeUnit.MILLISECONDS);
+        }
+        log.info("[JobLock:{}] 획득 fence={}", job, fence);
+        return lease;
+    }
+
+    private void record(String job, String result) {
+        meterRegistry.counter("scheduler.lock.acquire", "job", job, "result", result).increment();
+    }
+
+    private AtomicInteger heldFlag(String job) {
+        return heldFlags.computeIfAbsent(job, j -> {
+            AtomicInteger flag = new AtomicInteger();
+            Gauge.builder("scheduler.lock.held", flag, AtomicInteger::get)
+                    .tag("job", j)
+                    .register(meterRegistry);
+            return flag;
+        });
+    }
+
+    private static String lockKey(String job) {
+        return "scheduler-lock:" + job;
+    }
+
+    private static String fenceKey(String job) {
+        return "scheduler-lock:" + job + ":fence";
+    }
+}
@@ -0,0 +1,40 @@
+package bookapp.bookappback.common.scheduling;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * ClusterJobLock fencing token 을 저장소에서 검사한다.
+ *
+ * 파괴적 쓰기를 하는 트랜잭션 안에서 advance(lease) 를 먼저 호출하면, scheduler_fence 의 잡 행을
+ * 이 lease 의 토큰으로 올리면서 행 락을 잡는다. 이미 더 큰 토큰이 기록돼 있으면(새 보유자가 쓰기 시작함)
+ * LeaseLostException 으로 트랜잭션을 되돌린다. 행 락은 커밋까지 유지되므로, 멈췄다 깨어난 이전 보유자의
+ * 쓰기는 새 보유자의 쓰기와 겹치지 않고 기다렸다가 거절된다.
+ */
+@Component
+public class JobFence {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public JobFence(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /** @throws ClusterJobLock.LeaseLostException 더 새로운 lease 가 이미 이 잡의 쓰기를 했을 때 */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void advance(ClusterJobLock.Lease lease) {
+        int updated = jdbcTemplate.update("""
+                INSERT INTO scheduler_fence (job, token, updated_at) VALUES (:job, :token, now())
+                ON CONFLICT (job) DO UPDATE SET token = EXCLUDED.token, updated_at = now()
+                WHERE scheduler_fence.token <= EXCLUDED.token
+                """, new MapSqlParameterSource()
+                .addValue("job", lease.job())
+                .addValue("token", lease.fencingToken()));
+        if (updated == 0) {
+            throw new ClusterJobLock.LeaseLostException(lease.job());
+        }
+    }
+}
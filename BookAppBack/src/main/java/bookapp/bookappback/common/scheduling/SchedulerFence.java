@@ -0,0 +1,28 @@
+package bookapp.bookappback.common.scheduling;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잡별로 파괴적 쓰기를 마지막으로 한 lease 의 fencing token.
+ * 읽기/쓰기는 JobFence 가 JDBC 로 한다.
+ */
+@Entity
+@Table(name = "scheduler_fence")
+@Getter
+@NoArgsConstructor
+public class SchedulerFence {
+
+    @Id
+    @Column(length = 100)
+    private String job;
+
+    @Column(nullable = false)
+    private long token;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -5,6 +5,8 @@ import bookapp.bookappback.book.dto.KakaoBookSearchResponse;
 import bookapp.bookappback.book.entity.Book;
 import bookapp.bookappback.book.repository.BookRepository;
 import bookapp.bookappback.book.service.KakaoBookService;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
 import bookapp.bookappback.user.entity.User;
 import bookapp.bookappback.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -28,23 +31,31 @@ public class DataLoader implements CommandLineRunner {
     private final BookRepository bookRepository;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-    private final WebClient.Builder webClientBuilder;
-    private final String aiBaseUrl;
+    private final WebClient aiWebClient;
+    private final Duration embedTimeout;
+    private final Duration corpusTimeout;
 
     public DataLoader(
             KakaoBookService kakaoBookService,
             BookRepository bookRepository,
             UserRepository userRepository,
             PasswordEncoder passwordEncoder,
-            WebClient.Builder webClientBuilder,
-            @Value("${ai.base-url}") String aiBaseUrl
+            OutboundHttpClients outboundHttpClients,
+            @Value("${ai.base-url}") String aiBaseUrl,
+            @Value("${ai.embedding.batch-timeout:120s}") Duration embedTimeout,
+            @Value("${ai.bootstrap.corpus-timeout:30m}") Duration corpusTimeout
     ) {
         this.kakaoBookService = kakaoBookService;
         this.bookRepository = bookRepository;
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.webClientBuilder = webClientBuilder;
-        this.aiBaseUrl = aiBaseUrl;
+        // 시작 시 배치 호출이라 AI 가드(서킷 브레이커/AIMD) 밖에서 ai 풀만 공유.
+        // 코퍼스 구축은 응답이 수 분 걸려 클라이언트 응답 타임아웃 대신 요청별 타임아웃을 건다
+        this.aiWebClient = outboundHttpClients.unguardedBuilder(Upstream.AI, null)
+                .baseUrl(aiBaseUrl)
+                .build();
+        this.embedTimeout = embedTimeout;
+        this.corpusTimeout = corpusTimeout;
     }
 
     @Override
@@ -105,13 +116,12 @@ public class DataLoader implements CommandLineRunner {
                 "소설", "문학", "철학", "심리", "SF", "판타지", "경제", "역사", "시집"
         );
 
-        WebClient webClient = webClientBuilder.baseUrl(aiBaseUrl).build();
-
-        webClient.post()
+        aiWebClient.post()
                 .uri("/api/books/fetch-and-filter")
                 .bodyValue(Map.of("keywords", keywords))
                 .retrieve()
                 .bodyToMono(String.class)
+                .timeout(corpusTimeout)
                 .doOnSuccess(response -> log.info("✅ FastAPI 응답: {}", response))
                 .doOnError(error -> log.error("❌ FastAPI 요청 실패: {}", error.getMessage()))
                 .subscribe();
@@ -121,7 +131,6 @@ public class DataLoader implements CommandLineRunner {
 
     private void triggerEmbedding(Book book) {
         try {
-            WebClient client = webClientBuilder.baseUrl(aiBaseUrl).build();
             Map<String, Object> body = Map.of(
                     "title", book.getTitle(),
                     "contents", book.getContents() == null ? "" : book.getContents(),
@@ -131,11 +140,12 @@ public class DataLoader implements CommandLineRunner {
                     "thumbnail", book.getThumbnail() == null ? "" : book.getThumbnail()
             );
 
-            client.post()
+            aiWebClient.post()
                     .uri("/api/books/embed-single")
                     .bodyValue(body)
                     .retrieve()
                     .bodyToMono(String.class)
+                    .timeout(embedTimeout)
                     .doOnSuccess(res -> log.info("초기 데이터 임베딩 성공: {}", book.getIsbn13()))
                     .doOnError(err -> log.error("초기 데이터 임베딩 실패 [{}]: {}", book.getIsbn13(), err.getMessage()))
                     .subscribe();
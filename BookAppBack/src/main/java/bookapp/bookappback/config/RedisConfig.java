@@ -1,25 +1,37 @@
 package bookapp.bookappback.config;
 
+import bookapp.bookappback.common.cache.CacheInvalidationBus;
+import bookapp.bookappback.common.cache.RedisLoadLock;
+import bookapp.bookappback.common.cache.TwoTierCacheManager;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 public class RedisConfig {
@@ -40,27 +52,105 @@ public class RedisConfig {
         return new GenericJackson2JsonRedisSerializer(om);
     }
 
+    /** 논블로킹 검색 경로용. CacheManager 와 같은 키/값 직렬화를 써서 같은 캐시 엔트리를 읽고 쓴다 */
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory cf) {
+    public ReactiveRedisTemplate<String, Object> cacheReactiveRedisTemplate(ReactiveRedisConnectionFactory cf) {
+        RedisSerializationContext<String, Object> context = RedisSerializationContext
+                .<String, Object>newSerializationContext(new StringRedisSerializer())
+                .value(redisSerializer())
+                .build();
+        return new ReactiveRedisTemplate<>(cf, context);
+    }
+
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory cf) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(cf);
+        return container;
+    }
+
+    @Bean
+    public CacheInvalidationBus cacheInvalidationBus(StringRedisTemplate redisTemplate,
+                                                     RedisMessageListenerContainer redisMessageListenerContainer,
+                                                     MeterRegistry meterRegistry) {
+        return new CacheInvalidationBus(redisTemplate, redisMessageListenerContainer, meterRegistry);
+    }
+
+    /** 캐시 미스 적재용 인스턴스 간 락 — cache.load-lock.enabled=true 일 때만 사용 */
+    @Bean
+    public RedisLoadLock redisLoadLock(StringRedisTemplate redisTemplate) {
+        return new RedisLoadLock(redisTemplate, Duration.ofSeconds(10), Duration.ofSeconds(3), Duration.ofMillis(50));
+    }
+
+    /** soft 만료(stale-while-revalidate) 갱신 전용 스레드. 큐가 차면 갱신을 건너뛰고 다음 조회 때 재시도 */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskExecutor cacheRefreshExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public CacheManager cacheManager(RedisConnectionFactory cf,
+                                     MeterRegistry meterRegistry,
+                                     CacheInvalidationBus cacheInvalidationBus,
+                                     RedisLoadLock redisLoadLock,
+                                     ThreadPoolTaskExecutor cacheRefreshExecutor,
+                                     Environment env,
+                                     @Value("${cache.load-lock.enabled:false}") boolean loadLockEnabled) {
         RedisCacheConfiguration defaultConfig = RedisCacheConfiguration.defaultCacheConfig()
                 .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
                 .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(redisSerializer()))
                 .entryTtl(Duration.ofHours(6));
 
-        // 캐시별 TTL 개별 설정
+        // 캐시별 TTL 개별 설정 (hard TTL = Redis TTL). cache.ttl.{캐시명}.hard 로 덮어쓸 수 있다
+        // 카카오 검색 결과: 책 목록은 자주 변하지 않으므로 6시간 유지
+        Duration bookSearchHard = ttl(env, "bookSearchCache", "hard", Duration.ofHours(6));
+        // 유저별 추천 결과: 본인 서재 변경 시 즉시 무효화, 이웃 변화는 10분 내 반영
+        Duration recommendationHard = ttl(env, "recommendationCache", "hard", Duration.ofMinutes(10));
+        // AI 검색 결과: 임베딩/리랭크 비용이 가장 큰 호출. 신규 도서 임베딩이 반영되도록 1시간
+        Duration aiSearchHard = ttl(env, "aiSearchCache", "hard", Duration.ofHours(1));
         Map<String, RedisCacheConfiguration> cacheConfigs = Map.of(
-            // 카카오 검색 결과: 책 목록은 자주 변하지 않으므로 6시간 유지
-            "bookSearchCache", defaultConfig.entryTtl(Duration.ofHours(6)),
-            // 인기 도서: 1시간마다 갱신하여 최신 트렌드 반영
-            "popularBooksCache", defaultConfig.entryTtl(Duration.ofHours(1))
+            "bookSearchCache", defaultConfig.entryTtl(bookSearchHard),
+            "recommendationCache", defaultConfig.entryTtl(recommendationHard),
+            "aiSearchCache", defaultConfig.entryTtl(aiSearchHard)
         );
 
-        log.info("Redis CacheManager initialized. default TTL=6h, popularBooksCache TTL=1h");
-        return RedisCacheManager.RedisCacheManagerBuilder
+        RedisCacheManager redisCacheManager = RedisCacheManager.RedisCacheManagerBuilder
                 .fromConnectionFactory(cf)
                 .cacheDefaults(defaultConfig)
                 .withInitialCacheConfigurations(cacheConfigs)
                 .build();
+        redisCacheManager.afterPropertiesSet();
+
+        // 반복 호출되는 캐시는 Caffeine L1 을 앞에 둔다 (다른 인스턴스 L1 은 pub/sub 무효화 + TTL)
+        // soft TTL(cache.ttl.{캐시명}.soft)이 지나면 기존 값을 주면서 백그라운드로 갱신한다
+        Duration bookSearchSoft = ttl(env, "bookSearchCache", "soft", Duration.ofHours(5));
+        Map<String, TwoTierCacheManager.Spec> specs = Map.of(
+            // 홈 화면 추천
+            "recommendationCache", new TwoTierCacheManager.Spec(10_000, Duration.ofSeconds(30),
+                    false, ttl(env, "recommendationCache", "soft", null)),
+            // 인기 검색어 결과는 힙에서 바로 응답 (역직렬화/네트워크 왕복 없음). 미스 시 Kakao 호출은 키당 한 번
+            "bookSearchCache", new TwoTierCacheManager.Spec(5_000, Duration.ofMinutes(10),
+                    loadLockEnabled, bookSearchSoft),
+            // 같은/비슷한 질문의 동시 요청은 FastAPI 를 한 번만 호출
+            "aiSearchCache", new TwoTierCacheManager.Spec(1_000, Duration.ofMinutes(5),
+                    loadLockEnabled, ttl(env, "aiSearchCache", "soft", null))
+        );
+
+        log.info("Redis CacheManager initialized. default TTL=6h, bookSearchCache soft={} hard={} (L1 10m), recommendationCache TTL={} (L1 30s), aiSearchCache TTL={} (L1 5m)",
+                bookSearchSoft, bookSearchHard, recommendationHard, aiSearchHard);
+        return new TwoTierCacheManager(redisCacheManager, specs, meterRegistry,
+                cacheInvalidationBus, redisLoadLock, cacheRefreshExecutor);
+    }
+
+    private static Duration ttl(Environment env, String cacheName, String kind, Duration defaultValue) {
+        return env.getProperty("cache.ttl." + cacheName + "." + kind, Duration.class, defaultValue);
     }
 
     @PostConstruct
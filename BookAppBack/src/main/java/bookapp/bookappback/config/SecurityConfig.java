@@ -45,8 +45,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll() // Allow preflight OPTIONS requests
                         .requestMatchers("/api/users/signup", "/api/users/signin").permitAll()
-                        .requestMatchers("/api/ai/search").permitAll() // AI 검색 허용
-                        .requestMatchers("/api/books/search", "/api/books/detail/**", "/api/books/popular", "/api/books/popular/naru", "/api/books/*/editions", "/api/books/test", "/api/books/details").permitAll() // 책 조회는 인증 없이 허용
+                        .requestMatchers("/api/ai/search", "/api/ai/search/stream").permitAll() // AI 검색 허용
+                        .requestMatchers("/api/books/search", "/api/books/search/reactive", "/api/books/detail/**", "/api/books/popular", "/api/books/popular/naru", "/api/books/*/editions", "/api/books/test", "/api/books/details").permitAll() // 책 조회는 인증 없이 허용
                         .requestMatchers(HttpMethod.GET, "/api/books/*/reviews").permitAll() // 리뷰 조회는 인증 없이 허용
                         // 내부 추천용 API: Security는 열어두되 Controller에서 X-Internal-Token으로 2차 보호
                         .requestMatchers("/api/library/all").permitAll()
@@ -2,11 +2,13 @@ package bookapp.bookappback.recommendation.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.util.List;
 
 @Getter
 @AllArgsConstructor
+@NoArgsConstructor // Redis 캐시 역직렬화용
 public class RecommendationResponse {
     private String type;       // "personalized" | "popular"
     private List<Long> bookIds;
@@ -0,0 +1,32 @@
+package bookapp.bookappback.recommendation.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 야간 배치가 계산한 아이템–아이템 유사도 (도서별 상위 N개 이웃).
+ * 쓰기는 ItemSimilarityService 가 계산한 모델을 BookSimilarityWriter 가 JDBC 배치로 통째로 교체하고, 추천 시에는 읽기만 한다.
+ */
+@Entity
+@Table(name = "book_similarity",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"book_id", "neighbor_book_id"}),
+        indexes = @Index(name = "idx_book_similarity_book_id", columnList = "book_id"))
+@Getter
+@NoArgsConstructor
+public class BookSimilarity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "book_id", nullable = false)
+    private Long bookId;
+
+    @Column(name = "neighbor_book_id", nullable = false)
+    private Long neighborBookId;
+
+    /** Weighted Jaccard 유사도 (0~1) */
+    @Column(nullable = false)
+    private double score;
+}
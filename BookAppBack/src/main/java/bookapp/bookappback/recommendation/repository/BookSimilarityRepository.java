@@ -0,0 +1,15 @@
+package bookapp.bookappback.recommendation.repository;
+
+import bookapp.bookappback.recommendation.entity.BookSimilarity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface BookSimilarityRepository extends JpaRepository<BookSimilarity, Long> {
+
+    // 유저 서재의 책들에 대한 이웃 목록을 한 번에 조회
+    List<BookSimilarity> findByBookIdIn(Collection<Long> bookIds);
+}
@@ -0,0 +1,43 @@
+package bookapp.bookappback.recommendation.service;
+
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import bookapp.bookappback.common.scheduling.JobFence;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * book_similarity 테이블 교체 쓰기.
+ *
+ * ItemSimilarityService 가 트랜잭션 밖에서 이웃 목록을 계산한 뒤 호출한다.
+ * 트랜잭션은 fencing token 기록과 DELETE/배치 INSERT 만 감싸므로 커넥션을 짧게 잡는다.
+ * 하나의 트랜잭션이므로 커밋 전까지 추천 요청은 이전 모델을 읽는다.
+ */
+@Service
+@RequiredArgsConstructor
+public class BookSimilarityWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JobFence jobFence;
+
+    /**
+     * @param rows  (book_id, neighbor_book_id, score) 행
+     * @param lease 아이템 CF 잡 lease
+     * @return 저장한 행 수
+     * @throws ClusterJobLock.LeaseLostException lease 를 잃었거나 더 새로운 lease 가 이미 교체했을 때
+     */
+    @Transactional
+    public int replaceAll(List<Object[]> rows, ClusterJobLock.Lease lease) {
+        lease.checkHeld();
+        jobFence.advance(lease);
+        jdbcTemplate.update("DELETE FROM book_similarity");
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO book_similarity (book_id, neighbor_book_id, score) VALUES (?, ?, ?)",
+                rows
+        );
+        return rows.size();
+    }
+}
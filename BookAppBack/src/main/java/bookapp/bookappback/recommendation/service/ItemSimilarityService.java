@@ -0,0 +1,128 @@
+package bookapp.bookappback.recommendation.service;
+
+import bookapp.bookappback.common.ranking.LongDoubleAccumulator;
+import bookapp.bookappback.common.ranking.TopK;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import bookapp.bookappback.recommendation.repository.BookSimilarityRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Row;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 아이템 기반 CF 모델 생성기.
+ *
+ * 도서 b, c 의 유사도 = Weighted Jaccard(b 를 가진 유저 가중치 벡터, c 를 가진 유저 가중치 벡터).
+ * 도서별로 상위 N개 이웃만 book_similarity 테이블에 저장하며, 야간 배치(ItemSimilarityScheduler)가 호출한다.
+ *
+ * 입력은 user_book_status 를 그대로 반영하는 UserBookInteractionIndex 의 스냅샷이므로
+ * 테이블을 다시 읽지 않는다. 계산량은 Σ(유저 서재 크기²) 에 비례한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemSimilarityService {
+
+    private final UserBookInteractionIndex interactionIndex;
+    private final BookSimilarityRepository bookSimilarityRepository;
+    private final BookSimilarityWriter bookSimilarityWriter;
+
+    @Value("${recommendation.item-cf.neighbors:20}")
+    private int neighborsPerBook;
+
+    public boolean isModelEmpty() {
+        return bookSimilarityRepository.count() == 0;
+    }
+
+    /**
+     * 모델을 새로 계산해 테이블 전체를 교체한다.
+     * 계산은 인덱스 스냅샷만 읽으므로 트랜잭션 밖에서 하고, 교체만 BookSimilarityWriter 의 짧은 트랜잭션으로 한다.
+     * 교체 전에 lease 의 fencing token 을 기록해, lease 를 잃은 이전 보유자의 늦은 교체는 거절된다.
+     *
+     * @return 저장한 (book, neighbor) 쌍 수
+     */
+    public int rebuildModel(ClusterJobLock.Lease lease) {
+        long start = System.nanoTime();
+        Map<Long, Row> rows = interactionIndex.snapshotRows();
+
+        // bookId → 그 책을 가진 유저들의 (Row, weight) 열. Row 를 직접 들고 있어 계산 중 rows 를 다시 조회하지 않는다
+        Map<Long, Column> columns = new HashMap<>();
+        rows.forEach((userId, row) -> {
+            for (int i = 0; i < row.size(); i++) {
+                long bookId = row.bookIdAt(i);
+                columns.computeIfAbsent(bookId, Column::new).add(row, row.weightAt(i));
+            }
+        });
+        LongDoubleAccumulator norms = new LongDoubleAccumulator(columns.size() * 2);
+        columns.values().forEach(column -> norms.add(column.bookId, column.norm));
+
+        // Σmin(w_ub, w_uc) 누적기 — 책마다 비우고 재사용해 후보 쌍마다 박싱/할당하지 않는다
+        LongDoubleAccumulator overlap = new LongDoubleAccumulator();
+        List<Object[]> batch = new ArrayList<>();
+        for (Column column : columns.values()) {
+            long bookId = column.bookId;
+
+            // b 를 가진 유저들의 서재만 훑는다
+            overlap.clear();
+            for (int p = 0; p < column.size; p++) {
+                float weightB = column.weights[p];
+                Row row = column.rows[p];
+                for (int i = 0; i < row.size(); i++) {
+                    long other = row.bookIdAt(i);
+                    if (other == bookId) continue;
+                    overlap.add(other, Math.min(weightB, row.weightAt(i)));
+                }
+            }
+
+            TopK top = new TopK(neighborsPerBook);
+            for (int k = 0; k < overlap.size(); k++) {
+                long other = overlap.keyAt(k);
+                double minSum = overlap.valueAt(k);
+                double denominator = column.norm + norms.get(other) - minSum;
+                if (denominator <= 0.0) continue;
+                top.offer(other, minSum / denominator);
+            }
+            top.drain((neighborBookId, score) -> batch.add(new Object[]{bookId, neighborBookId, score}));
+        }
+
+        long computedAt = System.nanoTime();
+
+        int saved = bookSimilarityWriter.replaceAll(batch, lease);
+
+        log.info("[ItemCF] 모델 갱신 완료 books={} pairs={} compute_ms={} write_ms={}",
+                columns.size(), saved, (computedAt - start) / 1_000_000, (System.nanoTime() - computedAt) / 1_000_000);
+        return saved;
+    }
+
+    /** 한 책을 가진 유저들의 (Row, weight) 열 */
+    private static final class Column {
+        private final long bookId;
+        private Row[] rows = new Row[4];
+        private float[] weights = new float[4];
+        private int size;
+        private double norm;
+
+        Column(long bookId) {
+            this.bookId = bookId;
+        }
+
+        void add(Row row, float weight) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            rows[size] = row;
+            weights[size] = weight;
+            size++;
+            norm += weight;
+        }
+    }
+}
@@ -2,27 +2,50 @@ package bookapp.bookappback.recommendation.service;
 
 import bookapp.bookappback.ai.service.AiRecommendationService;
 import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.BookIdResolver;
 import bookapp.bookappback.common.exception.UserExceptions;
+import bookapp.bookappback.common.metrics.QueryCountInspector;
+import bookapp.bookappback.common.ranking.ReciprocalRankFusion;
+import bookapp.bookappback.common.ranking.TopK;
 import bookapp.bookappback.recommendation.dto.RecommendationResponse;
+import bookapp.bookappback.recommendation.entity.BookSimilarity;
+import bookapp.bookappback.recommendation.repository.BookSimilarityRepository;
 import bookapp.bookappback.user.entity.User;
 import bookapp.bookappback.user.repository.UserRepository;
+import bookapp.bookappback.user.service.UserAgeGroupCache;
 import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Neighbors;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Popularity;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Row;
 import bookapp.bookappback.userbookstatus.service.UserBookStatusService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
-import java.time.LocalDate;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 
 /**
  * Hybrid 추천 = CF (Weighted Jaccard) + Content-based (pgvector)
  * 두 결과를 Reciprocal Rank Fusion(RRF)으로 결합한다.
+ * CF 입력은 UserBookInteractionIndex(메모리 상주)에서 읽으므로 요청마다 테이블 전체를 읽지 않는다.
+ * 이웃 후보는 bookId → users 역색인으로 좁히므로 책을 공유하지 않는 유저는 계산하지 않는다.
+ * recommendation.cf.mode=item 이면 야간 배치의 아이템–아이템 모델(book_similarity)을 대신 사용한다.
  *
  *   RRF_score(book) = 1/(k + cf_rank) + 1/(k + content_rank)   (k=60)
  *
- * FastAPI 호출 실패 시 CF-only로 자동 폴백.
+ * Content-based 분기는 CF 와 동시에 실행되며, 지연 예산(recommendation.latency-budget-ms)을
+ * 넘기거나 FastAPI 호출이 실패하면 CF-only로 자동 폴백.
+ * 결과는 유저별로 recommendationCache 에 캐시되며, 본인 서재가 바뀌면 무효화되고 그 외에는 TTL 로 갱신된다.
  */
 @Service
 @RequiredArgsConstructor
@@ -30,82 +53,97 @@ import java.util.stream.Collectors;
 public class RecommendationService {
 
     private final UserBookStatusService userBookStatusService;
+    private final UserBookInteractionIndex interactionIndex;
     private final AiRecommendationService aiRecommendationService;
     private final UserRepository userRepository;
+    private final UserAgeGroupCache userAgeGroupCache;
     private final BookRepository bookRepository;
+    private final BookIdResolver bookIdResolver;
+    private final BookSimilarityRepository bookSimilarityRepository;
+    private final MeterRegistry meterRegistry;
+    private final CacheManager cacheManager;
+
+    // user: 실시간 유저 기반 CF, item: 야간 배치로 계산한 아이템 기반 CF
+    @Value("${recommendation.cf.mode:user}")
+    private String cfMode;
+
+    // Content-based(FastAPI) 분기의 지연 예산. 초과 시 해당 분기를 취소하고 CF 결과만으로 결합한다.
+    @Value("${recommendation.latency-budget-ms:1500}")
+    private long latencyBudgetMs;
 
     private static final int TOP_K_NEIGHBORS = 5;
     private static final int NUM_RECOMMENDATIONS = 10;
+    private static final int CF_CANDIDATES = NUM_RECOMMENDATIONS * 2;
     private static final double AGE_BONUS = 1.3;
     private static final int RRF_K = 60;
+    private static final String CF_MODE_ITEM = "item";
+    private static final String RECOMMENDATION_CACHE = "recommendationCache";
 
     public RecommendationResponse getRecommendations(String userEmail) {
-        User user = userRepository.findByEmail(userEmail)
-                .orElseThrow(() -> new UserExceptions.EmailNotFoundException(userEmail));
+        long queriesBefore = QueryCountInspector.current();
+        try {
+            User user = userRepository.findByEmail(userEmail)
+                    .orElseThrow(() -> new UserExceptions.EmailNotFoundException(userEmail));
+
+            // 유저별 결과 캐시 (L1 Caffeine + L2 Redis). 서재 변경 시 UserBookStatusService 가 무효화한다.
+            Cache cache = cacheManager.getCache(RECOMMENDATION_CACHE);
+            if (cache == null) {
+                return recommend(user);
+            }
+            try {
+                return cache.get(user.getId(), () -> recommend(user));
+            } catch (Cache.ValueRetrievalException e) {
+                // 적재 중 예외는 원래 도메인 예외로 전달 (GlobalExceptionHandler 매핑 유지)
+                if (e.getCause() instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw e;
+            }
+        } finally {
+            long queries = QueryCountInspector.current() - queriesBefore;
+            meterRegistry.summary("recommendation.db.queries").record(queries);
+            log.debug("[Hybrid] db_queries={}", queries);
+        }
+    }
+
+    private RecommendationResponse recommend(User user) {
         Long targetUserId = user.getId();
 
-        Map<Long, Map<Long, Double>> allLibraries = userBookStatusService.getAllUserLibrariesWeighted();
+        Row targetRow = interactionIndex.getRow(targetUserId);
 
         // Cold start: 유저의 책이 없으면 인기 도서 반환
-        Map<Long, Double> targetWeights = allLibraries.get(targetUserId);
-        if (targetWeights == null || targetWeights.isEmpty()) {
-            List<Long> popular = getMostPopularBookIds(allLibraries, Collections.emptySet(), NUM_RECOMMENDATIONS);
+        if (targetRow.isEmpty()) {
+            List<Long> popular = getMostPopularBookIds(Collections.emptySet(), NUM_RECOMMENDATIONS);
             return new RecommendationResponse("popular", popular);
         }
 
-        // ── CF: Weighted Jaccard + 나이대 보너스 ──────────────────────────────
-        int targetAgeGroup = user.getBirthYear() != null ? calcAgeGroup(user.getBirthYear()) : -1;
-
-        List<Long> neighborIds = allLibraries.entrySet().stream()
-                .filter(e -> !e.getKey().equals(targetUserId))
-                .map(e -> {
-                    double sim = weightedJaccard(targetWeights, e.getValue());
-                    if (targetAgeGroup >= 0) {
-                        User neighbor = userRepository.findById(e.getKey()).orElse(null);
-                        if (neighbor != null && neighbor.getBirthYear() != null
-                                && calcAgeGroup(neighbor.getBirthYear()) == targetAgeGroup) {
-                            sim *= AGE_BONUS;
-                        }
-                    }
-                    return Map.entry(e.getKey(), sim);
-                })
-                .filter(e -> e.getValue() > 0)
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .limit(TOP_K_NEIGHBORS)
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        Map<Long, Double> cfScoreMap = new LinkedHashMap<>();
-        for (Long neighborId : neighborIds) {
-            for (Map.Entry<Long, Double> entry : allLibraries.get(neighborId).entrySet()) {
-                Long bookId = entry.getKey();
-                if (!targetWeights.containsKey(bookId)) {
-                    cfScoreMap.merge(bookId, entry.getValue(), Double::sum);
-                }
-            }
-        }
-
-        // CF 결과: 점수 내림차순 정렬 → 순위 배열
-        List<Long> cfRanked = cfScoreMap.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toList());
-
-        // ── Content-based: FastAPI pgvector 검색 ─────────────────────────────
+        // ── Content-based: FastAPI pgvector 검색을 먼저 띄워두고 CF 와 겹쳐 실행 ──
         List<UserBookIsbnDto> userBooksWithIsbn =
                 userBookStatusService.getUserBooksWithIsbn(targetUserId);
+        CompletableFuture<List<String>> contentIsbns = launchContentBranch(userBooksWithIsbn);
+
+        // ── CF: 유저 기반(실시간) 또는 아이템 기반(야간 배치 모델) ─────────────
+        Map<Long, Double> cfScoreMap = CF_MODE_ITEM.equalsIgnoreCase(cfMode)
+                ? itemBasedScores(targetRow)
+                : userBasedScores(user, targetRow);
 
-        List<Long> contentRanked = getContentBasedBookIds(userBooksWithIsbn, targetWeights.keySet());
+        // CF 결과: 상위 CF_CANDIDATES 권만 순위 배열로 (Content 분기와 같은 깊이)
+        List<Long> cfRanked = TopK.topIds(cfScoreMap, CF_CANDIDATES);
+
+        // 예산 안에 도착한 Content 결과만 사용 (초과 시 빈 리스트 → CF-only)
+        List<Long> contentRanked = toBookIds(contentIsbns.join(), targetRow);
 
         // ── Hybrid: Reciprocal Rank Fusion ────────────────────────────────────
-        List<Long> hybrid = reciprocalRankFusion(cfRanked, contentRanked, NUM_RECOMMENDATIONS);
+        List<Long> hybrid = ReciprocalRankFusion.fuse(RRF_K, NUM_RECOMMENDATIONS, cfRanked, contentRanked);
 
         // 부족하면 인기 도서로 보충
         if (hybrid.size() < NUM_RECOMMENDATIONS) {
-            Set<Long> excludeIds = new HashSet<>(targetWeights.keySet());
-            excludeIds.addAll(hybrid);
+            Set<Long> excludeIds = new HashSet<>(hybrid);
+            for (int i = 0; i < targetRow.size(); i++) {
+                excludeIds.add(targetRow.bookIdAt(i));
+            }
             int needed = NUM_RECOMMENDATIONS - hybrid.size();
-            List<Long> filler = getMostPopularBookIds(allLibraries, excludeIds, needed);
+            List<Long> filler = getMostPopularBookIds(excludeIds, needed);
             hybrid = new ArrayList<>(hybrid);
             hybrid.addAll(filler);
         }
@@ -119,91 +157,100 @@ public class RecommendationService {
     // ── Private Helpers ───────────────────────────────────────────────────────
 
     /**
-     * FastAPI Content-based 추천 호출 → ISBN → bookId 변환.
-     * 실패 또는 빈 결과이면 빈 리스트 반환.
+     * 유저 기반 CF: Weighted Jaccard + 나이대 보너스로 상위 K명 이웃을 고르고,
+     * 이웃들이 가진 (대상 유저가 안 가진) 책의 가중치를 합산한다.
      */
-    private List<Long> getContentBasedBookIds(
-            List<UserBookIsbnDto> userBooksWithIsbn,
-            Set<Long> targetBookIds) {
-
-        if (userBooksWithIsbn.isEmpty()) return Collections.emptyList();
-
-        List<String> isbns = aiRecommendationService
-                .getContentRecommendations(userBooksWithIsbn, NUM_RECOMMENDATIONS * 2);
-
-        if (isbns.isEmpty()) return Collections.emptyList();
+    private Map<Long, Double> userBasedScores(User user, Row targetRow) {
+        long targetUserId = user.getId();
+        int targetAgeGroup = user.getBirthYear() != null ? UserAgeGroupCache.calcAgeGroup(user.getBirthYear()) : -1;
+
+        // 역색인으로 책을 공유하는 유저만 점수를 매기고, 상위 K명만 힙에 유지한다
+        Neighbors candidates = interactionIndex.scoreNeighbors(targetUserId);
+        TopK topNeighbors = new TopK(TOP_K_NEIGHBORS);
+        for (int i = 0; i < candidates.size(); i++) {
+            long neighborId = candidates.userIdAt(i);
+            double sim = candidates.similarityAt(i);
+            if (targetAgeGroup >= 0 && userAgeGroupCache.ageGroupOf(neighborId) == targetAgeGroup) {
+                sim *= AGE_BONUS;
+            }
+            topNeighbors.offer(neighborId, sim);
+        }
 
-        return isbns.stream()
-                .map(isbn -> bookRepository.findByIsbn13(isbn).map(b -> b.getId()).orElse(null))
-                .filter(id -> id != null && !targetBookIds.contains(id))
-                .collect(Collectors.toList());
+        Map<Long, Double> cfScoreMap = new HashMap<>();
+        for (long neighborId : topNeighbors.drainIds()) {
+            Row neighborRow = interactionIndex.getRow(neighborId);
+            for (int i = 0; i < neighborRow.size(); i++) {
+                long bookId = neighborRow.bookIdAt(i);
+                if (!targetRow.contains(bookId)) {
+                    cfScoreMap.merge(bookId, (double) neighborRow.weightAt(i), Double::sum);
+                }
+            }
+        }
+        return cfScoreMap;
     }
 
     /**
-     * Reciprocal Rank Fusion.
-     * score(book) = 1/(RRF_K + cf_rank) + 1/(RRF_K + content_rank)
-     * 두 목록 중 하나에만 있으면 해당 항만 합산.
+     * 아이템 기반 CF: 야간 배치가 저장한 도서별 이웃 목록을 한 번에 읽어
+     * score(c) = Σ_b weight(b) × sim(b, c) 로 합산한다. 비용은 O(서재 크기 × N).
      */
-    private List<Long> reciprocalRankFusion(
-            List<Long> cfRanked, List<Long> contentRanked, int limit) {
-
-        Map<Long, Double> scores = new HashMap<>();
-
-        for (int i = 0; i < cfRanked.size(); i++) {
-            scores.merge(cfRanked.get(i), 1.0 / (RRF_K + i + 1), Double::sum);
-        }
-        for (int i = 0; i < contentRanked.size(); i++) {
-            scores.merge(contentRanked.get(i), 1.0 / (RRF_K + i + 1), Double::sum);
+    private Map<Long, Double> itemBasedScores(Row targetRow) {
+        List<Long> libraryBookIds = new ArrayList<>(targetRow.size());
+        for (int i = 0; i < targetRow.size(); i++) {
+            libraryBookIds.add(targetRow.bookIdAt(i));
         }
 
-        return scores.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(limit)
-                .collect(Collectors.toList());
-    }
-
-    private double weightedJaccard(Map<Long, Double> wA, Map<Long, Double> wB) {
-        Set<Long> allBooks = new HashSet<>(wA.keySet());
-        allBooks.addAll(wB.keySet());
-        double numerator = 0.0;
-        double denominator = 0.0;
-        for (Long bookId : allBooks) {
-            double a = wA.getOrDefault(bookId, 0.0);
-            double b = wB.getOrDefault(bookId, 0.0);
-            numerator += Math.min(a, b);
-            denominator += Math.max(a, b);
+        Map<Long, Double> cfScoreMap = new HashMap<>();
+        for (BookSimilarity similarity : bookSimilarityRepository.findByBookIdIn(libraryBookIds)) {
+            long neighborBookId = similarity.getNeighborBookId();
+            if (targetRow.contains(neighborBookId)) continue;
+            double weight = targetRow.weight(similarity.getBookId());
+            cfScoreMap.merge(neighborBookId, weight * similarity.getScore(), Double::sum);
         }
-        return denominator == 0.0 ? 0.0 : numerator / denominator;
-    }
-
-    private int calcAgeGroup(int birthYear) {
-        int age = LocalDate.now().getYear() - birthYear;
-        return Math.max(10, Math.min(60, (age / 10) * 10));
+        return cfScoreMap;
     }
 
-    private List<Long> getMostPopularBookIds(
-            Map<Long, Map<Long, Double>> libraries, Set<Long> excludeIds, int limit) {
-
-        if (libraries.isEmpty()) {
-            return bookRepository.findTopNByOrderByCreatedAtDesc(limit)
-                    .stream().map(b -> b.getId()).collect(Collectors.toList());
+    /**
+     * FastAPI Content-based 추천을 비동기로 시작한다.
+     * latencyBudgetMs 를 넘기면 구독을 취소(HTTP 요청 중단)하고 빈 리스트로 완료된다. 실패해도 빈 리스트로 완료된다.
+     */
+    private CompletableFuture<List<String>> launchContentBranch(List<UserBookIsbnDto> userBooksWithIsbn) {
+        if (userBooksWithIsbn.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.emptyList());
         }
+        return aiRecommendationService
+                .getContentRecommendationsAsync(userBooksWithIsbn, NUM_RECOMMENDATIONS * 2)
+                .timeout(Duration.ofMillis(latencyBudgetMs))
+                .onErrorResume(TimeoutException.class, e -> {
+                    meterRegistry.counter("recommendation.branch.timeout", "branch", "content").increment();
+                    log.warn("[Hybrid] Content-based 지연 예산 {}ms 초과 — CF-only 로 결합", latencyBudgetMs);
+                    return Mono.just(Collections.emptyList());
+                })
+                .onErrorResume(e -> {
+                    meterRegistry.counter("recommendation.branch.error", "branch", "content").increment();
+                    log.warn("[Hybrid] Content-based 분기 실패 — CF-only 로 결합: {}", e.getMessage());
+                    return Mono.just(Collections.emptyList());
+                })
+                .toFuture();
+    }
 
-        Map<Long, Double> freq = new HashMap<>();
-        for (Map<Long, Double> userBooks : libraries.values()) {
-            for (Map.Entry<Long, Double> entry : userBooks.entrySet()) {
-                if (!excludeIds.contains(entry.getKey())) {
-                    freq.merge(entry.getKey(), entry.getValue(), Double::sum);
-                }
-            }
-        }
+    /**
+     * Content-based 추천 ISBN → bookId 변환. 이미 가진 책은 제외.
+     */
+    private List<Long> toBookIds(List<String> isbns, Row targetRow) {
+        if (isbns.isEmpty()) return Collections.emptyList();
 
-        List<Long> result = freq.entrySet().stream()
-                .sorted(Map.Entry.<Long, Double>comparingByValue().reversed())
-                .map(Map.Entry::getKey)
-                .limit(limit)
+        // ISBN → id 는 캐시 + IN 쿼리 한 번으로 일괄 변환 (FastAPI 순위 유지)
+        Map<String, Long> idByIsbn = bookIdResolver.resolveIds(isbns);
+        return isbns.stream()
+                .map(idByIsbn::get)
+                .filter(id -> id != null && !targetRow.contains(id))
+                .distinct()
                 .collect(Collectors.toList());
+    }
+
+    private List<Long> getMostPopularBookIds(Set<Long> excludeIds, int limit) {
+        // 인덱스가 유지하는 인기 순위표에서 상위만 읽는다 (전체 서재 합산 없음)
+        List<Long> result = interactionIndex.topBooks(Popularity.WEIGHTED, limit, excludeIds);
 
         if (result.isEmpty()) {
             return bookRepository.findTopNByOrderByCreatedAtDesc(limit)
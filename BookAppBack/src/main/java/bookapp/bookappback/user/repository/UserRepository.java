@@ -3,8 +3,10 @@ package bookapp.bookappback.user.repository;
 
 import bookapp.bookappback.user.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -17,4 +19,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
 
     Optional<User> findByNickname(String nickname);
+
+    // 추천 나이대 테이블 적재용 — (id, birthYear) 프로젝션
+    @Query("SELECT u.id, u.birthYear FROM User u WHERE u.birthYear IS NOT NULL")
+    List<Object[]> findAllBirthYears();
 }
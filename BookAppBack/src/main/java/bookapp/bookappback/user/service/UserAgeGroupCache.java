@@ -0,0 +1,151 @@
+package bookapp.bookappback.user.service;
+
+import bookapp.bookappback.user.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * userId → 출생연도 테이블을 메모리에 상주시켜 추천 시 나이대 보너스를 DB 조회 없이 계산한다.
+ *
+ * users.id 는 BIGSERIAL 이라 값이 촘촘하므로 userId 를 그대로 인덱스로 쓰는 short[] 에 보관한다.
+ * (0 = 출생연도 없음). 배열 범위를 벗어나는 큰 id 만 보조 Map 에 둔다.
+ * 나이대는 연도가 바뀌면 달라지므로 출생연도를 저장하고 조회 시 계산한다.
+ *
+ * 회원가입/프로필 수정 시 갱신되며, 다른 인스턴스의 가입은 주기적 재적재로 반영된다.
+ * 재적재 중 들어온 등록은 기록해 두었다가 새 테이블로 교체한 뒤 다시 적용한다.
+ */
+@Slf4j
+@Component
+public class UserAgeGroupCache {
+
+    private static final int MAX_DENSE_ID = 1 << 24;
+
+    private final UserRepository userRepository;
+
+    private volatile short[] birthYears = new short[1024];
+    private final Map<Long, Short> overflow = new HashMap<>();
+
+    // 재적재 중 들어온 등록 — 새 테이블로 교체한 뒤 다시 적용한다
+    private List<PendingRegistration> pendingDuringReload;
+
+    public UserAgeGroupCache(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Scheduled(
+            initialDelayString = "${recommendation.index.resync-interval-ms:3600000}",
+            fixedDelayString = "${recommendation.index.resync-interval-ms:3600000}"
+    )
+    public void resync() {
+        reload();
+    }
+
+    /** users 에서 (id, birthYear) 프로젝션만 읽어 테이블을 다시 만든다. */
+    public void reload() {
+        synchronized (this) {
+            pendingDuringReload = new ArrayList<>();
+        }
+
+        short[] fresh = new short[1024];
+        Map<Long, Short> freshOverflow = new HashMap<>();
+        int loaded = 0;
+        try {
+            for (Object[] tuple : userRepository.findAllBirthYears()) {
+                long userId = ((Number) tuple[0]).longValue();
+                int birthYear = ((Number) tuple[1]).intValue();
+                if (userId >= 0 && userId < MAX_DENSE_ID) {
+                    if (userId >= fresh.length) {
+                        fresh = Arrays.copyOf(fresh, grownLength(fresh.length, userId));
+                    }
+                    fresh[(int) userId] = (short) birthYear;
+                } else {
+                    freshOverflow.put(userId, (short) birthYear);
+                }
+                loaded++;
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingDuringReload = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            birthYears = fresh;
+            overflow.clear();
+            overflow.putAll(freshOverflow);
+            for (PendingRegistration registration : pendingDuringReload) {
+                applyLocked(registration.userId(), registration.birthYear());
+            }
+            pendingDuringReload = null;
+        }
+        log.info("[AgeGroupCache] 적재 완료 users={}", loaded);
+    }
+
+    /** 가입/프로필 변경 시 호출 — birthYear 가 null 이면 항목을 지운다. */
+    public synchronized void register(Long id, Integer birthYear) {
+        if (id == null) return;
+        short value = birthYear != null ? birthYear.shortValue() : 0;
+        applyLocked(id, value);
+        if (pendingDuringReload != null) {
+            pendingDuringReload.add(new PendingRegistration(id, value));
+        }
+    }
+
+    private void applyLocked(long userId, short value) {
+        if (userId >= 0 && userId < MAX_DENSE_ID) {
+            short[] current = birthYears;
+            if (userId >= current.length) {
+                if (value == 0) return;
+                current = Arrays.copyOf(current, grownLength(current.length, userId));
+            }
+            current[(int) userId] = value;
+            birthYears = current;
+        } else if (value == 0) {
+            overflow.remove(userId);
+        } else {
+            overflow.put(userId, value);
+        }
+    }
+
+    /** @return 10~60 나이대, 출생연도를 모르면 -1 */
+    public int ageGroupOf(long userId) {
+        int birthYear;
+        if (userId >= 0 && userId < MAX_DENSE_ID) {
+            short[] current = birthYears;
+            birthYear = userId < current.length ? current[(int) userId] : 0;
+        } else {
+            synchronized (this) {
+                birthYear = overflow.getOrDefault(userId, (short) 0);
+            }
+        }
+        return birthYear > 0 ? calcAgeGroup(birthYear) : -1;
+    }
+
+    /** birthYear → 10단위 나이대 (10~60 클램프) */
+    public static int calcAgeGroup(int birthYear) {
+        int age = LocalDate.now().getYear() - birthYear;
+        return Math.max(10, Math.min(60, (age / 10) * 10));
+    }
+
+    private static int grownLength(int length, long userId) {
+        long target = Math.max((long) length * 2, userId + 1);
+        return (int) Math.min(target, MAX_DENSE_ID);
+    }
+
+    private record PendingRegistration(long userId, short birthYear) {}
+}
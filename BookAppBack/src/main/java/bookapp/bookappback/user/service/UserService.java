@@ -27,6 +27,7 @@ public class UserService implements UserDetailsService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
+    private final UserAgeGroupCache userAgeGroupCache;
 
     @Override
     @Transactional(readOnly = true)
@@ -56,6 +57,7 @@ public class UserService implements UserDetailsService {
                 request.getBirthYear()
         );
         userRepository.save(user);
+        userAgeGroupCache.register(user.getId(), user.getBirthYear());
 
         return new UserResponse(
                 user.getId(),
@@ -121,6 +123,7 @@ public class UserService implements UserDetailsService {
         }
 
         userRepository.save(user);
+        userAgeGroupCache.register(user.getId(), user.getBirthYear());
     }
 
     public void changePassword(Long userId, ChangePasswordRequest request) {
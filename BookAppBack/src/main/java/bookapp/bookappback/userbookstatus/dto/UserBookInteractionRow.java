@@ -0,0 +1,7 @@
+package bookapp.bookappback.userbookstatus.dto;
+
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+
+// 서재 전체 스캔용 projection — user/book 엔티티를 로딩하지 않고 FK 값만 읽는다
+public record UserBookInteractionRow(Long id, Long userId, Long bookId, ReadingStatus status) {
+}
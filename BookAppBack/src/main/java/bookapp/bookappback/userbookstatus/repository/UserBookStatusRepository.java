@@ -1,11 +1,14 @@
 package bookapp.bookappback.userbookstatus.repository;
 
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
 import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
 import bookapp.bookappback.userbookstatus.entity.UserBookStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -14,12 +17,10 @@ public interface UserBookStatusRepository extends JpaRepository<UserBookStatus,
     List<UserBookStatus> findByUserIdAndStatus(Long userId, ReadingStatus status);
     Optional<UserBookStatus> findByUserIdAndBookId(Long userId, Long bookId);
 
-    @Query("""
-            SELECT ubs.book.id, COUNT(ubs.id) as popularity
-            FROM UserBookStatus ubs
-            WHERE ubs.status IN :statuses
-            GROUP BY ubs.book.id
-            ORDER BY popularity DESC
-            """)
-    List<Object[]> findPopularBooksByStatuses(@Param("statuses") List<ReadingStatus> statuses);
+    // 추천 인덱스 적재 / 서재 전체 스캔용 — 엔티티/프록시 없이 지정 상태만 id keyset 청크로 (KeysetScanner)
+    @Query("SELECT new bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow(ubs.id, ubs.user.id, ubs.book.id, ubs.status) " +
+            "FROM UserBookStatus ubs WHERE ubs.id > :afterId AND ubs.status IN :statuses ORDER BY ubs.id")
+    List<UserBookInteractionRow> findInteractionsAfter(@Param("afterId") long afterId,
+                                                       @Param("statuses") Collection<ReadingStatus> statuses,
+                                                       Limit limit);
 }
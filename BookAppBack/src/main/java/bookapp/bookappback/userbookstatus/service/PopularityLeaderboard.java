@@ -0,0 +1,56 @@
+package bookapp.bookappback.userbookstatus.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 도서 인기 순위표. 점수 내림차순(동점은 bookId 오름차순)으로 정렬된 TreeSet 과
+ * bookId → 현재 엔트리 맵을 함께 유지해 점수 변경은 O(log n), 상위 K 조회는 O(K + 제외 수) 이다.
+ *
+ * 스레드 안전하지 않다. UserBookInteractionIndex 의 락 안에서만 사용한다.
+ */
+final class PopularityLeaderboard {
+
+    private record Entry(long bookId, double score) {}
+
+    private static final Comparator<Entry> ORDER = Comparator
+            .comparingDouble(Entry::score).reversed()
+            .thenComparingLong(Entry::bookId);
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final TreeSet<Entry> ranking = new TreeSet<>(ORDER);
+
+    /** 점수를 갱신한다. 0 이하이면 순위표에서 뺀다. */
+    void set(long bookId, double score) {
+        Entry previous = entries.remove(bookId);
+        if (previous != null) {
+            ranking.remove(previous);
+        }
+        if (score > 0.0) {
+            Entry entry = new Entry(bookId, score);
+            entries.put(bookId, entry);
+            ranking.add(entry);
+        }
+    }
+
+    /** 상위부터 순회하며 excludeIds 에 없는 책을 limit 개까지 모은다. */
+    List<Long> top(int limit, Set<Long> excludeIds) {
+        List<Long> result = new ArrayList<>(Math.min(limit, entries.size()));
+        for (Entry entry : ranking) {
+            if (result.size() >= limit) break;
+            if (!excludeIds.contains(entry.bookId())) {
+                result.add(entry.bookId());
+            }
+        }
+        return result;
+    }
+
+    int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,561 @@
+package bookapp.bookappback.userbookstatus.service;
+
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.common.ranking.LongDoubleAccumulator;
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 추천용 유저–도서 상호작용 행렬을 메모리에 상주시키는 인덱스.
+ *
+ * 기동 시 user_book_status 를 keyset 청크로 한 번 읽어 적재하고, 이후에는
+ * UserBookStatusService.updateStatus 가 변경분만 패치한다.
+ * 추천 요청은 더 이상 테이블 전체를 읽지 않고 이 인덱스만 조회한다.
+ *
+ * 각 유저의 서재는 bookId 오름차순으로 정렬된 long[]/float[] 쌍(Row)으로 보관해
+ * 박싱 없이 병합(merge) 방식으로 유사도를 계산할 수 있다.
+ * Row 는 불변이며, 변경 시 새 Row 로 교체한다.
+ *
+ * 이웃 탐색용으로 bookId → (userId, weight) 역색인(Postings)도 함께 유지한다.
+ * 대상 유저와 책을 한 권이라도 공유하는 유저만 점수 계산 대상이 된다.
+ *
+ * 도서별 인기 순위표(PopularityLeaderboard)도 Postings 변경과 함께 갱신하므로
+ * 인기 도서 조회는 매번 전체 서재를 합산하지 않고 상위 K 만 읽는다.
+ *
+ * 다른 인스턴스에서 발생한 변경은 주기적인 재적재(resync)로 반영된다.
+ */
+@Slf4j
+@Component
+public class UserBookInteractionIndex {
+
+    private static final int SCAN_CHUNK_SIZE = 5_000;
+    // 가중치가 0 보다 큰 상태만 적재한다
+    private static final Set<ReadingStatus> WEIGHTED_STATUSES =
+            EnumSet.of(ReadingStatus.TO_READ, ReadingStatus.READING, ReadingStatus.COMPLETED);
+
+    private final UserBookStatusRepository userBookStatusRepository;
+    private final KeysetScanner keysetScanner;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<Long, Row> rows = new HashMap<>();
+    private Map<Long, Postings> postings = new HashMap<>();
+    private PopularityLeaderboard weightedBoard = new PopularityLeaderboard();
+    private PopularityLeaderboard readersBoard = new PopularityLeaderboard();
+
+    // 재적재 중 들어온 변경 — 새 스냅샷으로 교체한 뒤 다시 적용한다
+    private List<PendingUpdate> pendingDuringRebuild;
+
+    public UserBookInteractionIndex(UserBookStatusRepository userBookStatusRepository, KeysetScanner keysetScanner) {
+        this.userBookStatusRepository = userBookStatusRepository;
+        this.keysetScanner = keysetScanner;
+    }
+
+    @PostConstruct
+    public void init() {
+        rebuild();
+    }
+
+    /** 다중 인스턴스 환경에서 다른 노드의 변경을 따라잡기 위한 주기적 재적재 (기본 1시간) */
+    @Scheduled(
+            initialDelayString = "${recommendation.index.resync-interval-ms:3600000}",
+            fixedDelayString = "${recommendation.index.resync-interval-ms:3600000}"
+    )
+    public void resync() {
+        rebuild();
+    }
+
+    /**
+     * user_book_status 를 (id, userId, bookId, status) 프로젝션 keyset 청크로 읽어 인덱스를 새로 만든다.
+     * 엔티티/연관 프록시를 만들지 않고, 테이블 전체를 한 리스트로 들고 있지도 않는다.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+
+        lock.writeLock().lock();
+        try {
+            pendingDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Map<Long, RowBuilder> builders = new HashMap<>();
+        long interactions;
+        try {
+            interactions = keysetScanner.scan(SCAN_CHUNK_SIZE,
+                    (afterId, limit) -> userBookStatusRepository.findInteractionsAfter(afterId, WEIGHTED_STATUSES, limit),
+                    UserBookInteractionRow::id,
+                    chunk -> chunk.forEach(row -> builders.computeIfAbsent(row.userId(), k -> new RowBuilder())
+                            .add(row.bookId(), weightOf(row.status()))));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                pendingDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Map<Long, Row> fresh = new HashMap<>(builders.size() * 2);
+        builders.forEach((userId, builder) -> fresh.put(userId, builder.build()));
+
+        // userId 오름차순으로 넣으면 각 Postings 가 정렬 상태로 만들어진다
+        Map<Long, Postings> freshPostings = new HashMap<>();
+        fresh.keySet().stream().sorted().forEach(userId -> {
+            Row row = fresh.get(userId);
+            for (int i = 0; i < row.size(); i++) {
+                freshPostings.computeIfAbsent(row.bookIdAt(i), k -> new Postings()).append(userId, row.weightAt(i));
+            }
+        });
+
+        PopularityLeaderboard freshWeighted = new PopularityLeaderboard();
+        PopularityLeaderboard freshReaders = new PopularityLeaderboard();
+        freshPostings.forEach((bookId, list) -> {
+            freshWeighted.set(bookId, list.weightSum);
+            freshReaders.set(bookId, list.readers);
+        });
+
+        lock.writeLock().lock();
+        try {
+            rows = fresh;
+            postings = freshPostings;
+            weightedBoard = freshWeighted;
+            readersBoard = freshReaders;
+            for (PendingUpdate update : pendingDuringRebuild) {
+                applyLocked(update.userId(), update.bookId(), update.status());
+            }
+            pendingDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        log.info("[InteractionIndex] 적재 완료 users={} interactions={} elapsed_ms={}",
+                fresh.size(), interactions, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /** 유저의 도서 상태 변경을 인덱스에 반영한다. status 가 null 이면 제거로 처리한다. */
+    public void put(long userId, long bookId, ReadingStatus status) {
+        lock.writeLock().lock();
+        try {
+            applyLocked(userId, bookId, status);
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(new PendingUpdate(userId, bookId, status));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long userId, long bookId) {
+        put(userId, bookId, null);
+    }
+
+    private void applyLocked(long userId, long bookId, ReadingStatus status) {
+        float weight = weightOf(status);
+        Row current = rows.getOrDefault(userId, Row.EMPTY);
+        Row updated = weight > 0f ? current.with(bookId, weight) : current.without(bookId);
+        if (updated.isEmpty()) {
+            rows.remove(userId);
+        } else {
+            rows.put(userId, updated);
+        }
+
+        Postings list;
+        if (weight > 0f) {
+            list = postings.computeIfAbsent(bookId, k -> new Postings());
+            list.put(userId, weight);
+        } else {
+            list = postings.get(bookId);
+            if (list != null && list.remove(userId) && list.size == 0) {
+                postings.remove(bookId);
+            }
+        }
+        if (list != null) {
+            weightedBoard.set(bookId, list.weightSum);
+            readersBoard.set(bookId, list.readers);
+        }
+    }
+
+    /** @return 유저의 서재 Row. 없으면 {@link Row#EMPTY} */
+    public Row getRow(long userId) {
+        lock.readLock().lock();
+        try {
+            return rows.getOrDefault(userId, Row.EMPTY);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 모든 유저 Row 를 순회한다. visitor 는 읽기 락 안에서 실행되므로 I/O 를 하면 안 된다. */
+    public void forEachRow(RowVisitor visitor) {
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Long, Row> entry : rows.entrySet()) {
+                visitor.visit(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 대상 유저와 책을 한 권 이상 공유하는 유저들의 Weighted Jaccard 유사도를 계산한다.
+     *
+     * 대상 Row 의 각 책 Postings 만 훑어 Σmin(a,b) 를 누적하고,
+     * Σmax(a,b) = |A| + |B| - Σmin(a,b) 항등식으로 분모를 구한다.
+     * 따라서 비용은 전체 유저 수가 아니라 대상 책들의 Postings 길이 합에 비례한다.
+     */
+    public Neighbors scoreNeighbors(long targetUserId) {
+        lock.readLock().lock();
+        try {
+            Row target = rows.get(targetUserId);
+            if (target == null || target.isEmpty()) {
+                return Neighbors.EMPTY;
+            }
+
+            LongDoubleAccumulator overlap = new LongDoubleAccumulator();
+            for (int i = 0; i < target.size(); i++) {
+                Postings list = postings.get(target.bookIdAt(i));
+                if (list == null) continue;
+                float targetWeight = target.weightAt(i);
+                for (int p = 0; p < list.size; p++) {
+                    long userId = list.userIds[p];
+                    if (userId == targetUserId) continue;
+                    overlap.add(userId, Math.min(targetWeight, list.weights[p]));
+                }
+            }
+
+            long[] userIds = new long[overlap.size()];
+            double[] similarities = new double[overlap.size()];
+            int n = 0;
+            for (int k = 0; k < overlap.size(); k++) {
+                long userId = overlap.keyAt(k);
+                double minSum = overlap.valueAt(k);
+                double denominator = target.norm() + rows.get(userId).norm() - minSum;
+                if (denominator > 0.0 && minSum > 0.0) {
+                    userIds[n] = userId;
+                    similarities[n] = minSum / denominator;
+                    n++;
+                }
+            }
+            return new Neighbors(userIds, similarities, n);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 인기 도서 상위 limit 권 (excludeIds 제외).
+     *
+     * @param by WEIGHTED: 상태 가중치 합 (추천 보충용), READERS: 읽는 중/완독 유저 수
+     */
+    public List<Long> topBooks(Popularity by, int limit, Set<Long> excludeIds) {
+        lock.readLock().lock();
+        try {
+            PopularityLeaderboard board = by == Popularity.READERS ? readersBoard : weightedBoard;
+            return board.top(limit, excludeIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 현재 Row 들의 얕은 복사본 — Row 는 불변이므로 락 밖에서 오래 걸리는 배치 계산에 쓸 수 있다. */
+    public Map<Long, Row> snapshotRows() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        lock.readLock().lock();
+        try {
+            return rows.isEmpty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int userCount() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** 인기 순위 기준 */
+    public enum Popularity {
+        WEIGHTED,
+        READERS
+    }
+
+    // 이 가중치 이상(READING/COMPLETED)이면 '읽은 유저'로 센다
+    private static final float READER_WEIGHT = 1.0f;
+
+    /** READING/COMPLETED = 1.0, TO_READ = 0.5 */
+    public static float weightOf(ReadingStatus status) {
+        if (status == ReadingStatus.READING || status == ReadingStatus.COMPLETED) {
+            return 1.0f;
+        }
+        if (status == ReadingStatus.TO_READ) {
+            return 0.5f;
+        }
+        return 0f;
+    }
+
+    /** scoreNeighbors 결과 — (userId, similarity) 병렬 배열 */
+    public static final class Neighbors {
+
+        static final Neighbors EMPTY = new Neighbors(new long[0], new double[0], 0);
+
+        private final long[] userIds;
+        private final double[] similarities;
+        private final int size;
+
+        Neighbors(long[] userIds, double[] similarities, int size) {
+            this.userIds = userIds;
+            this.similarities = similarities;
+            this.size = size;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long userIdAt(int i) {
+            return userIds[i];
+        }
+
+        public double similarityAt(int i) {
+            return similarities[i];
+        }
+    }
+
+    /** 한 책을 가진 유저 목록 — userId 오름차순. 쓰기 락 안에서만 변경된다. */
+    private static final class Postings {
+        private long[] userIds = new long[4];
+        private float[] weights = new float[4];
+        private int size;
+
+        // 인기 순위표용 집계 — 가중치는 0.5/1.0 이라 float 합산 오차가 없다
+        private double weightSum;
+        private int readers;
+
+        /** 정렬 순서대로 들어온다는 전제의 적재용 추가 */
+        void append(long userId, float weight) {
+            ensureCapacity();
+            userIds[size] = userId;
+            weights[size] = weight;
+            size++;
+            count(weight, 1);
+        }
+
+        void put(long userId, float weight) {
+            int i = Arrays.binarySearch(userIds, 0, size, userId);
+            if (i >= 0) {
+                count(weights[i], -1);
+                weights[i] = weight;
+                count(weight, 1);
+                return;
+            }
+            int at = -i - 1;
+            ensureCapacity();
+            System.arraycopy(userIds, at, userIds, at + 1, size - at);
+            System.arraycopy(weights, at, weights, at + 1, size - at);
+            userIds[at] = userId;
+            weights[at] = weight;
+            size++;
+            count(weight, 1);
+        }
+
+        boolean remove(long userId) {
+            int i = Arrays.binarySearch(userIds, 0, size, userId);
+            if (i < 0) return false;
+            count(weights[i], -1);
+            System.arraycopy(userIds, i + 1, userIds, i, size - i - 1);
+            System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+            size--;
+            return true;
+        }
+
+        private void count(float weight, int sign) {
+            weightSum += sign * weight;
+            if (weight >= READER_WEIGHT) {
+                readers += sign;
+            }
+        }
+
+        private void ensureCapacity() {
+            if (size == userIds.length) {
+                userIds = Arrays.copyOf(userIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+        }
+    }
+
+    private record PendingUpdate(long userId, long bookId, ReadingStatus status) {}
+
+    @FunctionalInterface
+    public interface RowVisitor {
+        void visit(long userId, Row row);
+    }
+
+    /**
+     * 한 유저의 희소 행 — bookId 오름차순 정렬된 (bookId, weight) 배열.
+     * 불변 객체이므로 락 밖으로 꺼내 써도 안전하다.
+     */
+    public static final class Row {
+
+        public static final Row EMPTY = new Row(new long[0], new float[0]);
+
+        private final long[] bookIds;
+        private final float[] weights;
+        private final double norm;
+
+        Row(long[] bookIds, float[] weights) {
+            this.bookIds = bookIds;
+            this.weights = weights;
+            double sum = 0.0;
+            for (float w : weights) sum += w;
+            this.norm = sum;
+        }
+
+        public int size() {
+            return bookIds.length;
+        }
+
+        public boolean isEmpty() {
+            return bookIds.length == 0;
+        }
+
+        public long bookIdAt(int i) {
+            return bookIds[i];
+        }
+
+        public float weightAt(int i) {
+            return weights[i];
+        }
+
+        /** 가중치 합 (L1 norm) */
+        public double norm() {
+            return norm;
+        }
+
+        public boolean contains(long bookId) {
+            return Arrays.binarySearch(bookIds, bookId) >= 0;
+        }
+
+        /** @return 가중치, 없으면 0 */
+        public float weight(long bookId) {
+            int i = Arrays.binarySearch(bookIds, bookId);
+            return i >= 0 ? weights[i] : 0f;
+        }
+
+        Row with(long bookId, float weight) {
+            int i = Arrays.binarySearch(bookIds, bookId);
+            if (i >= 0) {
+                if (weights[i] == weight) return this;
+                float[] w = weights.clone();
+                w[i] = weight;
+                return new Row(bookIds, w);
+            }
+            int at = -i - 1;
+            long[] ids = new long[bookIds.length + 1];
+            float[] w = new float[weights.length + 1];
+            System.arraycopy(bookIds, 0, ids, 0, at);
+            System.arraycopy(weights, 0, w, 0, at);
+            ids[at] = bookId;
+            w[at] = weight;
+            System.arraycopy(bookIds, at, ids, at + 1, bookIds.length - at);
+            System.arraycopy(weights, at, w, at + 1, weights.length - at);
+            return new Row(ids, w);
+        }
+
+        Row without(long bookId) {
+            int i = Arrays.binarySearch(bookIds, bookId);
+            if (i < 0) return this;
+            long[] ids = new long[bookIds.length - 1];
+            float[] w = new float[weights.length - 1];
+            System.arraycopy(bookIds, 0, ids, 0, i);
+            System.arraycopy(weights, 0, w, 0, i);
+            System.arraycopy(bookIds, i + 1, ids, i, bookIds.length - i - 1);
+            System.arraycopy(weights, i + 1, w, i, weights.length - i - 1);
+            return new Row(ids, w);
+        }
+    }
+
+    /** 적재용 가변 버퍼 — 마지막에 bookId 기준으로 정렬해 Row 를 만든다. */
+    private static final class RowBuilder {
+        private long[] bookIds = new long[8];
+        private float[] weights = new float[8];
+        private int size;
+
+        void add(long bookId, float weight) {
+            if (size == bookIds.length) {
+                bookIds = Arrays.copyOf(bookIds, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+            }
+            bookIds[size] = bookId;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * (bookId, 원래 위치) 를 long 하나에 담아 primitive 정렬한다 — 항목마다 박싱하지 않는다.
+         * bookId 가 음수이거나 남은 비트에 안 들어가면 병렬 배열을 직접 삽입 정렬한다.
+         */
+        Row build() {
+            long[] ids = new long[size];
+            float[] w = new float[size];
+            int indexBits = Math.max(1, 64 - Long.numberOfLeadingZeros(size));
+            long maxBookId = (1L << (63 - indexBits)) - 1;
+            boolean packable = true;
+            for (int i = 0; i < size && packable; i++) {
+                packable = bookIds[i] >= 0 && bookIds[i] <= maxBookId;
+            }
+            if (packable) {
+                long indexMask = (1L << indexBits) - 1;
+                long[] packed = new long[size];
+                for (int i = 0; i < size; i++) packed[i] = (bookIds[i] << indexBits) | i;
+                Arrays.sort(packed);
+                for (int i = 0; i < size; i++) {
+                    int from = (int) (packed[i] & indexMask);
+                    ids[i] = bookIds[from];
+                    w[i] = weights[from];
+                }
+            } else {
+                for (int i = 0; i < size; i++) {
+                    long id = bookIds[i];
+                    float weight = weights[i];
+                    int j = i - 1;
+                    while (j >= 0 && ids[j] > id) {
+                        ids[j + 1] = ids[j];
+                        w[j + 1] = w[j];
+                        j--;
+                    }
+                    ids[j + 1] = id;
+                    w[j + 1] = weight;
+                }
+            }
+            return new Row(ids, w);
+        }
+    }
+}
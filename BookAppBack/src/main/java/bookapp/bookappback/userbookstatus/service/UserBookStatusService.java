@@ -4,20 +4,26 @@ import bookapp.bookappback.book.entity.Book;
 import bookapp.bookappback.book.repository.BookRepository;
 import bookapp.bookappback.common.exception.BookExceptions;
 import bookapp.bookappback.common.exception.UserExceptions;
+import bookapp.bookappback.common.jpa.KeysetScanner;
 import bookapp.bookappback.user.entity.User;
 import bookapp.bookappback.user.repository.UserRepository;
 import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
 import bookapp.bookappback.userbookstatus.entity.UserBookStatus;
 import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
 import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
 import bookapp.bookappback.userbookstatus.dto.UserLibraryResponse;
 import bookapp.bookappback.book.dto.BookDto; // Import BookDto
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -27,7 +33,14 @@ public class UserBookStatusService {
     private final UserBookStatusRepository userBookStatusRepository;
     private final UserRepository userRepository;
     private final BookRepository bookRepository;
+    private final UserBookInteractionIndex interactionIndex;
+    private final KeysetScanner keysetScanner;
 
+    private static final int SCAN_CHUNK_SIZE = 1_000;
+    private static final Set<ReadingStatus> LIBRARY_STATUSES = EnumSet.of(ReadingStatus.READING, ReadingStatus.COMPLETED);
+
+    // 서재가 바뀌면 해당 유저의 추천 결과 캐시를 무효화
+    @CacheEvict(value = "recommendationCache", key = "#result.user.id")
     public UserBookStatus updateStatus(String userEmail, Long bookId, ReadingStatus status) {
         User user = userRepository.findByEmail(userEmail)
                 .orElseThrow(() -> new UserExceptions.EmailNotFoundException(userEmail));
@@ -42,7 +55,9 @@ public class UserBookStatusService {
         userBookStatus.setBook(book);
         userBookStatus.setStatus(status);
 
-        return userBookStatusRepository.save(userBookStatus);
+        UserBookStatus saved = userBookStatusRepository.save(userBookStatus);
+        interactionIndex.put(user.getId(), bookId, status);
+        return saved;
     }
 
     public UserLibraryResponse getUserLibrary(String userEmail) {
@@ -83,15 +98,15 @@ public class UserBookStatusService {
         );
     }
 
+    // 전체 유저의 읽는 중/완독 도서 — 엔티티 전체 로딩 대신 (userId, bookId) projection 을 id 청크로 훑는다
     public Map<Long, List<Long>> getAllUserLibraries() {
-        List<UserBookStatus> allStatuses = userBookStatusRepository.findAll();
-
-        return allStatuses.stream()
-                .filter(status -> status.getStatus() == ReadingStatus.READING || status.getStatus() == ReadingStatus.COMPLETED)
-                .collect(Collectors.groupingBy(
-                        status -> status.getUser().getId(),
-                        Collectors.mapping(status -> status.getBook().getId(), Collectors.toList())
-                ));
+        Map<Long, List<Long>> libraries = new HashMap<>();
+        keysetScanner.scan(SCAN_CHUNK_SIZE,
+                (afterId, limit) -> userBookStatusRepository.findInteractionsAfter(afterId, LIBRARY_STATUSES, limit),
+                UserBookInteractionRow::id,
+                chunk -> chunk.forEach(row ->
+                        libraries.computeIfAbsent(row.userId(), k -> new ArrayList<>()).add(row.bookId())));
+        return libraries;
     }
 
     public List<UserBookIsbnDto> getUserBooksWithIsbn(Long userId) {
@@ -100,25 +115,4 @@ public class UserBookStatusService {
                 .map(s -> new UserBookIsbnDto(s.getBook().getIsbn13(), s.getStatus().name()))
                 .collect(Collectors.toList());
     }
-
-    public Map<Long, Map<Long, Double>> getAllUserLibrariesWeighted() {
-        List<UserBookStatus> allStatuses = userBookStatusRepository.findAll();
-
-        Map<Long, Map<Long, Double>> result = new HashMap<>();
-        for (UserBookStatus status : allStatuses) {
-            ReadingStatus rs = status.getStatus();
-            double weight;
-            if (rs == ReadingStatus.READING || rs == ReadingStatus.COMPLETED) {
-                weight = 1.0;
-            } else if (rs == ReadingStatus.TO_READ) {
-                weight = 0.5;
-            } else {
-                continue;
-            }
-            Long userId = status.getUser().getId();
-            Long bookId = status.getBook().getId();
-            result.computeIfAbsent(userId, k -> new HashMap<>()).put(bookId, weight);
-        }
-        return result;
-    }
 }
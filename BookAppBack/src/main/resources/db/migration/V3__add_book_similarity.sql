@@ -0,0 +1,15 @@
+-- ============================================================
+-- V3__add_book_similarity.sql
+-- 아이템 기반 CF 모델 — 도서별 상위 N개 이웃 (야간 배치로 전체 교체)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS book_similarity
+(
+    id               BIGSERIAL PRIMARY KEY,
+    book_id          BIGINT           NOT NULL,
+    neighbor_book_id BIGINT           NOT NULL,
+    score            DOUBLE PRECISION NOT NULL,
+    UNIQUE (book_id, neighbor_book_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_book_similarity_book_id ON book_similarity (book_id);
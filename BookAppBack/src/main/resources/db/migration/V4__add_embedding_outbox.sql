@@ -0,0 +1,17 @@
+-- ============================================================
+-- V4__add_embedding_outbox.sql
+-- 임베딩 작업 outbox — 도서 INSERT 와 같은 트랜잭션에서 기록, EmbeddingOutboxWorker 가 가져가 처리
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS embedding_outbox
+(
+    id           BIGSERIAL PRIMARY KEY,
+    isbn13       VARCHAR(255) UNIQUE NOT NULL,
+    attempts     INT                 NOT NULL DEFAULT 0,
+    available_at TIMESTAMP           NOT NULL DEFAULT now(),
+    locked_by    VARCHAR(100),
+    locked_until TIMESTAMP,
+    created_at   TIMESTAMP           NOT NULL DEFAULT now()
+);
+
+CREATE INDEX IF NOT EXISTS idx_embedding_outbox_available_at ON embedding_outbox (available_at);
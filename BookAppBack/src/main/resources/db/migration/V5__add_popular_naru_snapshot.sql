@@ -0,0 +1,22 @@
+-- ============================================================
+-- V5__add_popular_naru_snapshot.sql
+-- 정보나루 인기 도서 버전 스냅샷 — 새 버전 행을 다 쓴 뒤 포인터(active_version)만 바꿔 교체
+-- ============================================================
+
+ALTER TABLE popular_naru_books ADD COLUMN IF NOT EXISTS snapshot_version BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX IF NOT EXISTS idx_popular_naru_version_age_ranking
+    ON popular_naru_books (snapshot_version, age_group, ranking);
+
+CREATE TABLE IF NOT EXISTS popular_naru_snapshot
+(
+    id             INTEGER PRIMARY KEY,
+    active_version BIGINT NOT NULL,
+    next_version   BIGINT NOT NULL,
+    activated_at   TIMESTAMP
+);
+
+-- 기존 행(version 0)을 현재 스냅샷으로
+INSERT INTO popular_naru_snapshot (id, active_version, next_version, activated_at)
+VALUES (1, 0, 0, now())
+ON CONFLICT (id) DO NOTHING;
@@ -0,0 +1,11 @@
+-- ============================================================
+-- V6__add_scheduler_fence.sql
+-- 클러스터 락 fencing token 기록 — 잡별로 파괴적 쓰기를 한 가장 큰 토큰 (JobFence)
+-- ============================================================
+
+CREATE TABLE IF NOT EXISTS scheduler_fence
+(
+    job        VARCHAR(100) PRIMARY KEY,
+    token      BIGINT    NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,50 @@
+package bookapp.bookappback.ai.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiSearchNearDuplicateIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AiSearchNearDuplicateIndex index(boolean enabled, int maxEntries) {
+        return new AiSearchNearDuplicateIndex(enabled, 0.85, 4, maxEntries, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("띄어쓰기만 다른 질문은 먼저 들어온 질문을 대표 키로 쓴다")
+    void canonicalOf_mergesNearDuplicates() {
+        AiSearchNearDuplicateIndex index = index(true, 100);
+
+        assertEquals("스릴러 소설 추천해줘", index.canonicalOf("스릴러 소설 추천해줘"));
+        assertEquals("스릴러 소설 추천해줘", index.canonicalOf("스릴러 소설 추천해 줘"));
+        assertEquals("힐링 에세이 추천해줘", index.canonicalOf("힐링 에세이 추천해줘"));
+        assertEquals(1.0, meterRegistry.get("ai.search.near_duplicate.hits").counter().count());
+    }
+
+    @Test
+    @DisplayName("꺼져 있거나 너무 짧은 질문은 그대로 쓴다")
+    void canonicalOf_passThrough() {
+        AiSearchNearDuplicateIndex disabled = index(false, 100);
+        disabled.canonicalOf("스릴러 소설 추천해줘");
+        assertEquals("스릴러 소설 추천해 줘", disabled.canonicalOf("스릴러 소설 추천해 줘"));
+
+        AiSearchNearDuplicateIndex enabled = index(true, 100);
+        enabled.canonicalOf("sf");
+        assertEquals("s f", enabled.canonicalOf("s f"));
+    }
+
+    @Test
+    @DisplayName("최근 maxEntries 개만 유지한다 - 밀려난 질문은 다시 자기 자신이 대표")
+    void canonicalOf_evictsEldest() {
+        AiSearchNearDuplicateIndex index = index(true, 1);
+
+        index.canonicalOf("스릴러 소설 추천해줘");
+        index.canonicalOf("힐링 에세이 추천해줘");
+
+        assertEquals("스릴러 소설 추천해 줘", index.canonicalOf("스릴러 소설 추천해 줘"));
+    }
+}
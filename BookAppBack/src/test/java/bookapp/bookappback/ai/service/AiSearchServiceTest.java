@@ -0,0 +1,93 @@
+package bookapp.bookappback.ai.service;
+
+import bookapp.bookappback.ai.dto.AiSearchRequestDto;
+import bookapp.bookappback.ai.dto.AiSearchStreamEvent;
+import bookapp.bookappback.common.http.AimdConcurrencyLimiter;
+import bookapp.bookappback.common.http.CircuitBreaker;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import bookapp.bookappback.common.http.UpstreamGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AiSearchServiceTest {
+
+    private static final String NDJSON = """
+            {"type":"candidates","results":[{"isbn":"1"},{"isbn":"2"}]}
+            {"type":"final","results":[{"isbn":"2"}]}
+            """;
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final UpstreamGuard guard = new UpstreamGuard("ai",
+            new CircuitBreaker.Config(10, 4, 0.5, Duration.ofMinutes(1), 1),
+            new AimdConcurrencyLimiter.Config(1, 1, 10, Duration.ofSeconds(5), 0.5),
+            new SimpleMeterRegistry());
+    private final ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("aiSearchCache");
+    private AiSearchService service;
+
+    @BeforeEach
+    void setUp() {
+        OutboundHttpClients clients = mock(OutboundHttpClients.class);
+        ExchangeFunction fastApi = request -> {
+            calls.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_NDJSON_VALUE)
+                    .body(NDJSON)
+                    .build());
+        };
+        when(clients.builder(eq(Upstream.AI), any(Duration.class))).thenAnswer(inv -> WebClient.builder().exchangeFunction(fastApi));
+        when(clients.unguardedBuilder(eq(Upstream.AI), any(Duration.class))).thenAnswer(inv -> WebClient.builder().exchangeFunction(fastApi));
+        when(clients.guard(Upstream.AI)).thenReturn(guard);
+        AiSearchNearDuplicateIndex index = new AiSearchNearDuplicateIndex(false, 0.85, 4, 100, new SimpleMeterRegistry());
+        service = new AiSearchService(clients, cacheManager, index, "http://ai");
+    }
+
+    @Test
+    @DisplayName("스트리밍 - 후보와 최종 결과를 순서대로 넘기고, 최종 결과를 정규화 키로 캐시에 채운다")
+    void searchStream_relaysEventsAndCachesFinal() throws InterruptedException {
+        List<AiSearchStreamEvent> events = service.searchStream(new AiSearchRequestDto(" 스릴러  추천 ")).collectList().block();
+
+        assertEquals(List.of("candidates", "final"), events.stream().map(AiSearchStreamEvent::getType).toList());
+        assertEquals(2, events.get(0).getResults().size());
+
+        for (int i = 0; i < 50 && cacheManager.getCache("aiSearchCache").get("스릴러 추천") == null; i++) {
+            Thread.sleep(20);
+        }
+        assertEquals(List.of(Map.of("isbn", "2")), cacheManager.getCache("aiSearchCache").get("스릴러 추천").get());
+
+        // 스트림이 끝나면 가드 슬롯을 반납한다 (상한 1)
+        assertEquals(2, service.searchStream(new AiSearchRequestDto("다른 질문")).collectList().block().size());
+    }
+
+    @Test
+    @DisplayName("스트리밍 - 캐시에 결과가 있으면 FastAPI 호출 없이 최종 결과 한 건만 보낸다")
+    void searchStream_servesCachedFinal() {
+        cacheManager.getCache("aiSearchCache").put("스릴러 추천", List.of(Map.of("isbn", "9")));
+
+        List<AiSearchStreamEvent> events = service.searchStream(new AiSearchRequestDto("스릴러 추천")).collectList().block();
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).isFinal());
+        assertEquals(0, calls.get());
+    }
+}
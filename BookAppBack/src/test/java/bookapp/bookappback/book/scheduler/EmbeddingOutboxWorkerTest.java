@@ -0,0 +1,54 @@
+package bookapp.bookappback.book.scheduler;
+
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.BookEmbeddingPipeline;
+import bookapp.bookappback.book.service.EmbeddingOutboxService;
+import bookapp.bookappback.book.service.EmbeddingOutboxService.Claimed;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class EmbeddingOutboxWorkerTest {
+
+    private final EmbeddingOutboxService outboxService = mock(EmbeddingOutboxService.class);
+    private final BookEmbeddingPipeline pipeline = mock(BookEmbeddingPipeline.class);
+    private final BookRepository bookRepository = mock(BookRepository.class);
+    private final EmbeddingOutboxWorker worker =
+            new EmbeddingOutboxWorker(outboxService, pipeline, bookRepository, true, 3, Duration.ofMinutes(5), 8);
+
+    @Test
+    @DisplayName("outbox 워커 - 임베딩됐거나 도서가 없는 행은 완료, 나머지는 backoff 로 넘긴다")
+    void process_completesEmbeddedAndRetriesRest() {
+        List<Claimed> claimed = List.of(new Claimed(1, "A", 1), new Claimed(2, "B", 1), new Claimed(3, "GONE", 1));
+        List<BookEmbeddingSource> books = List.of(book("A"), book("B"));
+        when(bookRepository.findEmbeddingSourcesByIsbn13In(List.of("A", "B", "GONE"))).thenReturn(books);
+        when(pipeline.embedBatch(books)).thenReturn(List.of("A"));
+
+        worker.process(claimed);
+
+        verify(outboxService).complete(anyString(), eq(List.of(1L, 3L)));
+        verify(outboxService).retryLater(anyString(), eq(List.of(2L)), eq(8), any(Duration.class), any(Duration.class));
+    }
+
+    @Test
+    @DisplayName("outbox 워커 - 배치가 가득 차면 이어서 클레임하고, AI 서킷이 열리면 클레임하지 않는다")
+    void drain_keepsClaimingFullBatchesWhileAvailable() {
+        when(pipeline.isAvailable()).thenReturn(true, true, false);
+        when(outboxService.claim(anyString(), eq(3), any(Duration.class))).thenReturn(List.of(
+                new Claimed(1, "A", 1), new Claimed(2, "B", 1), new Claimed(3, "C", 1)));
+
+        worker.drain();
+
+        verify(outboxService, times(2)).claim(anyString(), eq(3), any(Duration.class));
+    }
+
+    private static BookEmbeddingSource book(String isbn13) {
+        return new BookEmbeddingSource(null, isbn13, "제목", null, null, null, null);
+    }
+}
@@ -0,0 +1,99 @@
+package bookapp.bookappback.book.scheduler;
+
+import bookapp.bookappback.book.dto.LibraryBookDto;
+import bookapp.bookappback.book.entity.PopularNaruBook;
+import bookapp.bookappback.book.service.LibraryApiService;
+import bookapp.bookappback.book.service.PopularNaruSnapshotService;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PopularNaruBookSchedulerTest {
+
+    private final LibraryApiService libraryApiService = mock(LibraryApiService.class);
+    private final PopularNaruSnapshotService snapshotService = mock(PopularNaruSnapshotService.class);
+    private final ClusterJobLock lock =
+            new ClusterJobLock(mock(StringRedisTemplate.class), new SimpleMeterRegistry(), false);
+    private final PopularNaruBookScheduler scheduler =
+            new PopularNaruBookScheduler(libraryApiService, snapshotService, lock, 3, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        lock.destroy();
+    }
+
+    @Test
+    @DisplayName("나루 인기 도서 - 나이대를 최대 fetch-concurrency 개씩 동시에 받는다")
+    void fetchAndStoreAll_fetchesAgeGroupsConcurrently() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(libraryApiService.getPopularBooksAsync(any())).thenAnswer(inv -> Mono.fromCallable(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return List.of(book("978"));
+                })
+                .delayElement(Duration.ofMillis(50))
+                .doOnNext(books -> inFlight.decrementAndGet()));
+
+        lock.runExclusive("test", Duration.ofMinutes(1), scheduler::fetchAndStoreAll);
+
+        verify(libraryApiService, times(PopularNaruBookScheduler.AGE_GROUPS.size())).getPopularBooksAsync(any());
+        assertThat(maxInFlight.get()).isEqualTo(3);
+        verify(snapshotService).publish(anyMap(), eq(PopularNaruBookScheduler.AGE_GROUPS), any(ClusterJobLock.Lease.class));
+        verify(snapshotService).deleteInactiveVersions();
+    }
+
+    @Test
+    @DisplayName("나루 인기 도서 - 결과가 빈 나이대는 새 스냅샷에서 빠지고(이전 버전 유지), 전부 비면 발행하지 않는다")
+    @SuppressWarnings("unchecked")
+    void fetchAndStoreAll_excludesEmptyGroups() {
+        when(libraryApiService.getPopularBooksAsync(any())).thenReturn(Mono.just(List.of(book("978"), book("979"))));
+        when(libraryApiService.getPopularBooksAsync(20)).thenReturn(Mono.just(List.of()));
+
+        lock.runExclusive("test", Duration.ofMinutes(1), scheduler::fetchAndStoreAll);
+
+        ArgumentCaptor<Map<Integer, List<PopularNaruBook>>> captor = ArgumentCaptor.forClass(Map.class);
+        verify(snapshotService).publish(captor.capture(), eq(PopularNaruBookScheduler.AGE_GROUPS), any(ClusterJobLock.Lease.class));
+        assertThat(captor.getValue()).containsOnlyKeys(0, 10, 30, 40, 50, 60);
+        assertThat(captor.getValue().get(0)).extracting(PopularNaruBook::getRanking).containsExactly(1, 2);
+
+        reset(snapshotService);
+        when(libraryApiService.getPopularBooksAsync(any())).thenReturn(Mono.just(List.of()));
+
+        lock.runExclusive("test", Duration.ofMinutes(1), scheduler::fetchAndStoreAll);
+
+        verify(snapshotService, never()).publish(anyMap(), anyCollection(), any());
+        verify(snapshotService, never()).deleteInactiveVersions();
+    }
+
+    @Test
+    @DisplayName("나루 인기 도서 - 수집이 시간 안에 끝나지 않으면 발행하지 않고, 기동(initIfEmpty)은 예외 없이 계속한다")
+    void initIfEmpty_survivesFetchTimeout() {
+        PopularNaruBookScheduler slowScheduler =
+                new PopularNaruBookScheduler(libraryApiService, snapshotService, lock, 3, Duration.ofMillis(50));
+        when(snapshotService.hasActiveSnapshot()).thenReturn(false);
+        when(libraryApiService.getPopularBooksAsync(any())).thenReturn(Mono.never());
+
+        assertThatCode(slowScheduler::initIfEmpty).doesNotThrowAnyException();
+
+        verify(snapshotService, never()).publish(anyMap(), anyCollection(), any());
+    }
+
+    private static LibraryBookDto book(String isbn13) {
+        return new LibraryBookDto(null, "제목", null, null, null, isbn13, null, null, "10");
+    }
+}
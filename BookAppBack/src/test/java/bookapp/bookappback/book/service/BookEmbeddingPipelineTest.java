@@ -0,0 +1,82 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.dto.BookEmbeddingSource;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.common.http.OutboundHttpClients;
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookEmbeddingPipelineTest {
+
+    private final BookRepository bookRepository = mock(BookRepository.class);
+
+    @Test
+    @DisplayName("임베딩 파이프라인 - batchSize 권씩 묶어 보내고 동시에 concurrency 배치까지만 보낸다")
+    void embed_batchesWithBoundedConcurrency() {
+        AtomicInteger calls = new AtomicInteger();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        BookEmbeddingPipeline pipeline = pipeline(request -> Mono.defer(() -> {
+                    calls.incrementAndGet();
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    // 응답을 내보내기 전에 줄인다 (doFinally 는 다음 배치 구독보다 늦게 돌 수 있다)
+                    return Mono.delay(Duration.ofMillis(50))
+                            .doOnNext(tick -> inFlight.decrementAndGet())
+                            .map(tick -> ClientResponse.create(HttpStatus.OK)
+                                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                                    .body("{\"embedded\":[\"a\",\"b\"],\"failed\":[\"c\"]}")
+                                    .build());
+                }), 3, 2);
+
+        BookEmbeddingPipeline.Result result = pipeline.embed(books(10));
+
+        assertEquals(4, calls.get());
+        assertTrue(maxInFlight.get() <= 2, "동시 배치 " + maxInFlight.get());
+        assertEquals(new BookEmbeddingPipeline.Result(10, 8, 2), result);
+        verify(bookRepository, times(4)).markAllAsEmbedded(List.of("a", "b"));
+    }
+
+    @Test
+    @DisplayName("임베딩 파이프라인 - 배치 호출이 실패하면 표시하지 않고 실패로 센다")
+    void embed_failedBatchIsLeftForRetry() {
+        BookEmbeddingPipeline pipeline = pipeline(request -> Mono.just(
+                ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()), 4, 2);
+
+        BookEmbeddingPipeline.Result result = pipeline.embed(books(5));
+
+        assertEquals(new BookEmbeddingPipeline.Result(5, 0, 5), result);
+        verify(bookRepository, never()).markAllAsEmbedded(anyCollection());
+    }
+
+    private BookEmbeddingPipeline pipeline(ExchangeFunction exchange, int batchSize, int concurrency) {
+        OutboundHttpClients clients = mock(OutboundHttpClients.class);
+        when(clients.unguardedBuilder(eq(Upstream.AI), any(Duration.class)))
+                .thenAnswer(inv -> WebClient.builder().exchangeFunction(exchange));
+        return new BookEmbeddingPipeline(bookRepository, clients, "http://ai", batchSize, concurrency, Duration.ofSeconds(5));
+    }
+
+    private static List<BookEmbeddingSource> books(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new BookEmbeddingSource((long) i, "978000000000" + i, "책 " + i, null, null, null, null))
+                .toList();
+    }
+}
@@ -0,0 +1,52 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class BookIdResolverTest {
+
+    @Mock private BookRepository bookRepository;
+
+    private BookIdResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        resolver = new BookIdResolver(bookRepository);
+    }
+
+    @Test
+    @DisplayName("일괄 변환 - 미스는 IN 쿼리 한 번, 두 번째 호출은 쿼리 없음")
+    void resolveIds_batchesMissesThenServesFromCache() {
+        List<Object[]> tuples = new ArrayList<>();
+        tuples.add(new Object[]{"9780000000001", 1L});
+        tuples.add(new Object[]{"9780000000002", 2L});
+        when(bookRepository.findIdsByIsbn13In(anyCollection())).thenReturn(tuples);
+
+        List<String> isbns = List.of("9780000000001", "9780000000002", "9789999999999");
+        Map<String, Long> first = resolver.resolveIds(isbns);
+
+        assertEquals(2, first.size());
+        assertEquals(1L, first.get("9780000000001"));
+        assertNull(first.get("9789999999999"));
+        verify(bookRepository, times(1)).findIdsByIsbn13In(anyCollection());
+
+        Map<String, Long> second = resolver.resolveIds(List.of("9780000000001", "9780000000002"));
+
+        assertEquals(first.get("9780000000002"), second.get("9780000000002"));
+        verify(bookRepository, times(1)).findIdsByIsbn13In(anyCollection());
+        assertEquals(2L, resolver.cachedId("9780000000002").orElseThrow());
+    }
+}
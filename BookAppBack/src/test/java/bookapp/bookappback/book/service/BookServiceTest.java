@@ -28,6 +28,9 @@ class BookServiceTest {
     @Mock
     private KakaoBookService kakaoBookService;
 
+    @Mock
+    private BookIdResolver bookIdResolver;
+
     @InjectMocks
     private BookService bookService;
 
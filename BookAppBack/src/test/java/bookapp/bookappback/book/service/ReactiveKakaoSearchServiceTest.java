@@ -0,0 +1,84 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.dto.KakaoBookSearchResponse;
+import bookapp.bookappback.common.cache.CacheEnvelope;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveValueOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReactiveKakaoSearchServiceTest {
+
+    private static final String KEY = "bookSearchCache::q:책:p:1:s:10:so:accuracy:t:null";
+
+    private KakaoBookService kakaoBookService;
+    private ReactiveValueOperations<String, Object> ops;
+    private ReactiveKakaoSearchService service;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kakaoBookService = mock(KakaoBookService.class);
+        ReactiveRedisTemplate<String, Object> template = mock(ReactiveRedisTemplate.class);
+        ops = mock(ReactiveValueOperations.class);
+        when(template.opsForValue()).thenReturn(ops);
+        when(ops.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.just(true));
+
+        service = new ReactiveKakaoSearchService(kakaoBookService, template, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(service, "softTtl", Duration.ofHours(5));
+        ReflectionTestUtils.setField(service, "hardTtl", Duration.ofHours(6));
+    }
+
+    @Test
+    @DisplayName("캐시 적중 - 블로킹 경로가 저장한 엔벨로프를 풀어서 반환하고 Kakao 는 호출하지 않는다")
+    void searchBooks_hitUnwrapsEnvelope() {
+        KakaoBookSearchResponse cached = new KakaoBookSearchResponse();
+        when(ops.get(KEY)).thenReturn(Mono.just(new CacheEnvelope(cached, System.currentTimeMillis() + 60_000)));
+
+        assertSame(cached, service.searchBooks("책", 1, 10, "accuracy", null).block());
+        verifyNoInteractions(kakaoBookService);
+    }
+
+    @Test
+    @DisplayName("캐시 미스 - 동시 요청은 Kakao 호출 하나를 공유하고 결과를 hard TTL 로 저장한다")
+    void searchBooks_missCoalescesAndStores() {
+        Sinks.One<KakaoBookSearchResponse> upstream = Sinks.one();
+        when(ops.get(KEY)).thenReturn(Mono.empty());
+        when(kakaoBookService.searchBooks("책", 1, 10, "accuracy", null)).thenReturn(upstream.asMono());
+
+        Mono<KakaoBookSearchResponse> first = service.searchBooks("책", 1, 10, "accuracy", null).cache();
+        Mono<KakaoBookSearchResponse> second = service.searchBooks("책", 1, 10, "accuracy", null).cache();
+        first.subscribe();
+        second.subscribe();
+
+        KakaoBookSearchResponse loaded = new KakaoBookSearchResponse();
+        upstream.tryEmitValue(loaded);
+
+        assertSame(loaded, first.block());
+        assertSame(loaded, second.block());
+        verify(kakaoBookService, times(1)).searchBooks("책", 1, 10, "accuracy", null);
+        verify(ops).set(eq(KEY), any(CacheEnvelope.class), eq(Duration.ofHours(6)));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 - 캐시 없이 Kakao 결과를 그대로 반환한다")
+    void searchBooks_redisFailureFallsBackToKakao() {
+        KakaoBookSearchResponse loaded = new KakaoBookSearchResponse();
+        when(ops.get(KEY)).thenReturn(Mono.error(new IllegalStateException("redis down")));
+        when(ops.set(anyString(), any(), any(Duration.class))).thenReturn(Mono.error(new IllegalStateException("redis down")));
+        when(kakaoBookService.searchBooks("책", 1, 10, "accuracy", null)).thenReturn(Mono.just(loaded));
+
+        assertSame(loaded, service.searchBooks("책", 1, 10, "accuracy", null).block());
+    }
+}
@@ -0,0 +1,34 @@
+package bookapp.bookappback.book.service;
+
+import bookapp.bookappback.book.service.SearchQueryNormalizer.SearchQuery;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchQueryNormalizerTest {
+
+    @Test
+    @DisplayName("검색어 - 앞뒤/연속 공백, 자모 분리(NFD), 대소문자 차이는 같은 키로")
+    void normalizeText_foldsWhitespaceUnicodeAndCase() {
+        String canonical = SearchQueryNormalizer.normalizeText("미움받을 용기");
+        String decomposed = java.text.Normalizer.normalize("미움받을 용기", java.text.Normalizer.Form.NFD);
+
+        assertEquals(canonical, SearchQueryNormalizer.normalizeText(" 미움받을  용기 "));
+        assertEquals(canonical, SearchQueryNormalizer.normalizeText("미움받을　용기"));
+        assertEquals(canonical, SearchQueryNormalizer.normalizeText(decomposed));
+        assertEquals("harry potter", SearchQueryNormalizer.normalizeText("Harry  POTTER"));
+        assertNotEquals(canonical, SearchQueryNormalizer.normalizeText("미움받을용기"));
+    }
+
+    @Test
+    @DisplayName("sort/target - 기본값 채우기와 빈 값 정리")
+    void normalize_canonicalizesDefaults() {
+        SearchQuery query = SearchQueryNormalizer.normalize("책", 1, 10, "", " ");
+
+        assertEquals("accuracy", query.sort());
+        assertNull(query.target());
+        assertEquals("title", SearchQueryNormalizer.normalize("책", 1, 10, "LATEST", "Title").target());
+        assertEquals("latest", SearchQueryNormalizer.normalize("책", 1, 10, "LATEST", null).sort());
+    }
+}
@@ -0,0 +1,142 @@
+package bookapp.bookappback.common.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TwoTierCacheTest {
+
+    private ConcurrentMapCache remote;
+    private SimpleMeterRegistry registry;
+    private TwoTierCache cache;
+
+    @BeforeEach
+    void setUp() {
+        remote = new ConcurrentMapCache("test");
+        registry = new SimpleMeterRegistry();
+        cache = new TwoTierCache("test", Caffeine.newBuilder().maximumSize(100).build(), remote, registry);
+    }
+
+    private double count(String tier, String result) {
+        return registry.get("cache.tier.gets").tag("tier", tier).tag("result", result).counter().count();
+    }
+
+    @Test
+    @DisplayName("조회 - L2 적중 값은 L1 에 채워지고 다음 조회는 L1 에서 응답")
+    void get_promotesRemoteHitToLocal() {
+        remote.put(1L, "value");
+
+        assertEquals("value", cache.get(1L, String.class));
+        assertEquals("value", cache.get(1L, String.class));
+
+        assertEquals(1, count("l1", "hit"));
+        assertEquals(1, count("l1", "miss"));
+        assertEquals(1, count("l2", "hit"));
+    }
+
+    @Test
+    @DisplayName("로더 - 미스 시 한 번 계산해 두 단계 모두 저장, 무효화 후 다시 계산")
+    void get_withLoader_loadsOnceAndEvictClearsBothTiers() {
+        AtomicInteger calls = new AtomicInteger();
+
+        cache.get(7L, () -> "v" + calls.incrementAndGet());
+        cache.get(7L, () -> "v" + calls.incrementAndGet());
+        assertEquals(1, calls.get());
+        assertNotNull(remote.get(7L));
+
+        cache.evict(7L);
+        assertNull(remote.get(7L));
+        assertEquals("v2", cache.get(7L, () -> "v" + calls.incrementAndGet()));
+    }
+
+    @Test
+    @DisplayName("인스턴스 간 무효화 - 쓰기는 발행하고, 수신 시 L1 만 비워 다음 조회는 L2 에서")
+    void invalidationBus_publishesOnWriteAndClearsLocalOnReceive() {
+        CacheInvalidationBus bus = mock(CacheInvalidationBus.class);
+        ArgumentCaptor<CacheInvalidationBus.Handler> handler = ArgumentCaptor.forClass(CacheInvalidationBus.Handler.class);
+        ConcurrentMapCacheManager remoteManager = new ConcurrentMapCacheManager("search");
+        TwoTierCacheManager manager = new TwoTierCacheManager(
+                remoteManager,
+                Map.of("search", new TwoTierCacheManager.Spec(100, Duration.ofMinutes(1))),
+                registry,
+                bus,
+                null,
+                null
+        );
+        verify(bus).subscribe(handler.capture());
+
+        Cache search = manager.getCache("search");
+        search.put("q:1", "result");
+        verify(bus).publishEvict("search", "q:1");
+
+        handler.getValue().invalidateLocal("search", "q:1");
+        assertEquals("result", search.get("q:1", String.class));
+
+        assertEquals(1, registry.get("cache.tier.gets").tag("cache", "search").tag("tier", "l1").tag("result", "miss").counter().count());
+        assertEquals(1, registry.get("cache.tier.gets").tag("cache", "search").tag("tier", "l2").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    @DisplayName("single-flight - 같은 키 동시 미스는 로더를 한 번만 호출하고 결과를 공유")
+    void get_withLoader_coalescesConcurrentMisses() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            calls.incrementAndGet();
+            loaderStarted.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return "kakao";
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = pool.submit(() -> cache.get("q:hot", loader));
+            assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+            Future<String> second = pool.submit(() -> cache.get("q:hot", loader));
+            while (registry.get("cache.loads.coalesced").counter().count() < 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            assertEquals("kakao", first.get(5, TimeUnit.SECONDS));
+            assertEquals("kakao", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1, registry.get("cache.loads").counter().count());
+    }
+
+    @Test
+    @DisplayName("soft 만료 - 기존 값을 즉시 반환하고 갱신은 백그라운드 실행기로")
+    void get_withLoader_staleValueServedAndRefreshed() {
+        TwoTierCache swr = new TwoTierCache("swr", Caffeine.newBuilder().maximumSize(100).build(), remote, registry,
+                new TwoTierCache.Options(null, null, Duration.ZERO, Runnable::run));
+        swr.put("q:1", "old");
+
+        assertEquals("old", swr.get("q:1", () -> "new"));
+        assertEquals("new", swr.get("q:1", String.class));
+        assertEquals(1, registry.get("cache.refreshes").tag("cache", "swr").counter().count());
+        assertInstanceOf(CacheEnvelope.class, remote.get("q:1").get());
+    }
+}
@@ -0,0 +1,70 @@
+package bookapp.bookappback.common.http;
+
+import bookapp.bookappback.common.http.CircuitBreaker.State;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    private final List<String> transitions = new ArrayList<>();
+    private final CircuitBreaker breaker = new CircuitBreaker(
+            new CircuitBreaker.Config(10, 4, 0.5, Duration.ofSeconds(10), 2),
+            (from, to) -> transitions.add(from + "->" + to),
+            clock::get);
+
+    private void call(boolean failure) {
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(failure);
+    }
+
+    @Test
+    @DisplayName("실패율이 임계치를 넘으면 OPEN - 최소 호출 수 전에는 열리지 않는다")
+    void opensAfterFailureRateExceeded() {
+        call(true);
+        call(true);
+        call(true);
+        assertEquals(State.CLOSED, breaker.state());
+
+        call(false);
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(List.of("CLOSED->OPEN"), transitions);
+    }
+
+    @Test
+    @DisplayName("OPEN 유지 시간이 지나면 HALF_OPEN - 시험 호출이 모두 성공하면 CLOSED")
+    void halfOpenProbesCloseCircuit() {
+        for (int i = 0; i < 4; i++) call(true);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        assertTrue(breaker.tryAcquire());
+        assertFalse(breaker.tryAcquire()); // 시험 호출은 2건까지
+        breaker.onResult(false);
+        breaker.onResult(false);
+
+        assertEquals(State.CLOSED, breaker.state());
+        assertEquals(List.of("CLOSED->OPEN", "OPEN->HALF_OPEN", "HALF_OPEN->CLOSED"), transitions);
+    }
+
+    @Test
+    @DisplayName("HALF_OPEN 시험 호출이 실패하면 다시 OPEN")
+    void halfOpenFailureReopens() {
+        for (int i = 0; i < 4; i++) call(true);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertTrue(breaker.tryAcquire());
+        breaker.onResult(true);
+
+        assertEquals(State.OPEN, breaker.state());
+        assertFalse(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,67 @@
+package bookapp.bookappback.common.http;
+
+import bookapp.bookappback.common.http.OutboundHttpClients.Upstream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboundHttpClientsTest {
+
+    private OutboundHttpClients clients;
+
+    @AfterEach
+    void tearDown() {
+        if (clients != null) clients.destroy();
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboundHttpClients create(MockEnvironment env) {
+        ObjectProvider<WebClient.Builder> builders = mock(ObjectProvider.class);
+        when(builders.getObject()).thenAnswer(inv -> WebClient.builder());
+        env.setConversionService(new ApplicationConversionService()); // Boot 환경과 같은 Duration 변환 ("2s")
+        clients = new OutboundHttpClients(builders, env, new SimpleMeterRegistry());
+        return clients;
+    }
+
+    @Test
+    @DisplayName("upstream 별 풀 설정 - 기본값과 http.client.* 덮어쓰기")
+    void pool_usesDefaultsAndOverrides() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("http.client.ai.max-connections", "200")
+                .withProperty("http.client.ai.max-idle-time", "2s");
+        OutboundHttpClients clients = create(env);
+
+        assertEquals(200, clients.pool(Upstream.AI).maxConnections());
+        assertEquals(Duration.ofSeconds(2), clients.pool(Upstream.AI).maxIdleTime());
+        assertEquals(Upstream.KAKAO.defaults().maxConnections(), clients.pool(Upstream.KAKAO).maxConnections());
+        assertTrue(clients.pool(Upstream.KAKAO).http2());
+        assertNotNull(clients.guard(Upstream.AI));
+        assertNull(clients.guard(Upstream.KAKAO));
+    }
+
+    @Test
+    @DisplayName("같은 upstream 은 응답 타임아웃이 달라도 커넥션 풀을 공유한다")
+    void httpClient_sharesProviderPerUpstream() {
+        OutboundHttpClients clients = create(new MockEnvironment());
+
+        HttpClient search = clients.httpClient(Upstream.AI, Duration.ofSeconds(30));
+        HttpClient recommend = clients.httpClient(Upstream.AI, Duration.ofSeconds(15));
+        HttpClient library = clients.httpClient(Upstream.LIBRARY, Duration.ofSeconds(30));
+
+        assertSame(search.configuration().connectionProvider(), recommend.configuration().connectionProvider());
+        assertNotSame(search.configuration().connectionProvider(), library.configuration().connectionProvider());
+        assertEquals("ai", search.configuration().connectionProvider().name());
+        assertEquals(Duration.ofSeconds(15), recommend.configuration().responseTimeout());
+    }
+}
@@ -0,0 +1,114 @@
+package bookapp.bookappback.common.http;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UpstreamGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClientRequest request = ClientRequest.create(HttpMethod.POST, URI.create("http://ai/api/ai/search")).build();
+
+    private UpstreamGuard guard(int limit) {
+        return new UpstreamGuard("ai",
+                new CircuitBreaker.Config(10, 4, 0.5, Duration.ofMinutes(1), 1),
+                new AimdConcurrencyLimiter.Config(limit, 1, 10, Duration.ofSeconds(5), 0.5),
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("5xx 가 이어지면 서킷이 열리고, 이후 호출은 upstream 에 보내지 않고 즉시 거절된다")
+    void serverErrorsOpenCircuitAndFastFail() {
+        UpstreamGuard guard = guard(10);
+        AtomicInteger sent = new AtomicInteger();
+        ExchangeFunction failing = req -> {
+            sent.incrementAndGet();
+            return Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build());
+        };
+
+        for (int i = 0; i < 4; i++) {
+            guard.filter(request, failing).block();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+
+        UpstreamRejectedException e = assertThrows(UpstreamRejectedException.class,
+                () -> guard.filter(request, failing).block());
+        assertEquals(UpstreamRejectedException.Reason.CIRCUIT_OPEN, e.getReason());
+        assertEquals(4, sent.get());
+        assertEquals(1.0, meterRegistry.get("http.client.rejections").tag("reason", "circuit_open").counter().count());
+        assertEquals(1.0, meterRegistry.get("http.client.circuit.transitions").tag("to", "OPEN").counter().count());
+    }
+
+    @Test
+    @DisplayName("동시 호출이 상한에 닿으면 거절하고, 응답이 오면 슬롯을 반납한다")
+    void concurrencyLimitRejectsAndReleases() {
+        UpstreamGuard guard = guard(1);
+        Sinks.One<ClientResponse> pending = Sinks.one();
+        ExchangeFunction slow = req -> pending.asMono();
+
+        Mono<ClientResponse> first = guard.filter(request, slow).cache();
+        first.subscribe();
+
+        UpstreamRejectedException e = assertThrows(UpstreamRejectedException.class,
+                () -> guard.filter(request, slow).block());
+        assertEquals(UpstreamRejectedException.Reason.CONCURRENCY_LIMIT, e.getReason());
+
+        pending.tryEmitValue(ClientResponse.create(HttpStatus.OK).build());
+        first.block();
+        assertNotNull(guard.filter(request, req -> Mono.just(ClientResponse.create(HttpStatus.OK).build())).block());
+    }
+
+    @Test
+    @DisplayName("스트리밍 - 본문이 끝날 때까지 슬롯을 잡고, 완료되면 반납한다")
+    void streamHoldsPermitUntilBodyCompletes() {
+        UpstreamGuard guard = guard(1);
+        Sinks.Many<String> body = Sinks.many().unicast().onBackpressureBuffer();
+
+        Disposable stream = guard.guardStream(body::asFlux, "error"::equals).subscribe();
+        body.tryEmitNext("candidates"); // 헤더·첫 이벤트 이후에도 진행 중
+
+        UpstreamRejectedException e = assertThrows(UpstreamRejectedException.class,
+                () -> guard.guardStream(() -> Flux.just("final"), "error"::equals).blockLast());
+        assertEquals(UpstreamRejectedException.Reason.CONCURRENCY_LIMIT, e.getReason());
+        assertFalse(stream.isDisposed());
+
+        body.tryEmitNext("final");
+        body.tryEmitComplete();
+        assertEquals("final", guard.guardStream(() -> Flux.just("final"), "error"::equals).blockLast());
+    }
+
+    @Test
+    @DisplayName("스트리밍 - error 이벤트는 정상 종료돼도 실패로 세어 서킷을 연다")
+    void streamErrorEventCountsAsFailure() {
+        UpstreamGuard guard = guard(10);
+        AtomicInteger sent = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            guard.guardStream(() -> {
+                sent.incrementAndGet();
+                return Flux.just("candidates", "error");
+            }, "error"::equals).blockLast();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, guard.state());
+
+        UpstreamRejectedException e = assertThrows(UpstreamRejectedException.class,
+                () -> guard.guardStream(() -> Flux.just("final"), "error"::equals).blockLast());
+        assertEquals(UpstreamRejectedException.Reason.CIRCUIT_OPEN, e.getReason());
+        assertEquals(4, sent.get());
+    }
+}
@@ -0,0 +1,52 @@
+package bookapp.bookappback.common.jpa;
+
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class KeysetScannerTest {
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final KeysetScanner scanner = new KeysetScanner(entityManager);
+
+    @Test
+    @DisplayName("keyset 스캔 - 직전 청크의 마지막 id 다음부터 읽고, 청크마다 영속성 컨텍스트를 비운다")
+    void scan_readsIdOrderedChunks() {
+        List<Long> ids = LongStream.of(3, 5, 8, 13, 21, 34, 55).boxed().toList();
+        List<Long> afterIds = new ArrayList<>();
+        List<List<Long>> chunks = new ArrayList<>();
+
+        long total = scanner.scan(3, (afterId, limit) -> {
+            afterIds.add(afterId);
+            return ids.stream().filter(id -> id > afterId).limit(limit.max()).toList();
+        }, id -> id, chunks::add);
+
+        assertEquals(7, total);
+        assertEquals(List.of(List.of(3L, 5L, 8L), List.of(13L, 21L, 34L), List.of(55L)), chunks);
+        assertEquals(List.of(Long.MIN_VALUE, 8L, 34L), afterIds);
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("keyset 스캔 - 처리 중 조건에서 빠지는 행이 있어도 남은 행을 건너뛰지 않는다")
+    void scan_doesNotSkipWhenRowsLeaveTheFilter() {
+        List<Long> pending = new ArrayList<>(LongStream.rangeClosed(1, 10).boxed().toList());
+        List<Long> seen = new ArrayList<>();
+
+        scanner.scan(4, (afterId, limit) -> pending.stream().filter(id -> id > afterId).limit(limit.max()).toList(),
+                id -> id,
+                chunk -> {
+                    seen.addAll(chunk);
+                    pending.removeAll(chunk); // embedded=true 로 표시되어 조건에서 빠짐
+                });
+
+        assertEquals(LongStream.rangeClosed(1, 10).boxed().toList(), seen);
+    }
+}
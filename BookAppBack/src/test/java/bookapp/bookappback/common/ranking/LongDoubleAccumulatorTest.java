@@ -0,0 +1,40 @@
+package bookapp.bookappback.common.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongDoubleAccumulatorTest {
+
+    @Test
+    @DisplayName("누적기 - 같은 키는 합산, 용량을 넘겨도 값 유지, 삽입 순서로 순회")
+    void add_accumulatesAcrossGrowth() {
+        LongDoubleAccumulator acc = new LongDoubleAccumulator(4);
+        for (long key = 1; key <= 100; key++) {
+            acc.add(key, 1.0);
+        }
+        acc.add(42L, 0.5);
+
+        assertEquals(100, acc.size());
+        assertEquals(1.5, acc.get(42L));
+        assertEquals(0.0, acc.get(1000L));
+        assertEquals(1L, acc.keyAt(0));
+        assertEquals(100L, acc.keyAt(99));
+    }
+
+    @Test
+    @DisplayName("누적기 - clear 후 재사용하면 이전 값이 남지 않는다")
+    void clear_resetsForReuse() {
+        LongDoubleAccumulator acc = new LongDoubleAccumulator();
+        acc.add(7L, 2.0);
+        acc.add(-3L, 1.0);
+
+        acc.clear();
+        acc.add(7L, 0.5);
+
+        assertEquals(1, acc.size());
+        assertEquals(0.5, acc.get(7L));
+        assertEquals(0.0, acc.get(-3L));
+    }
+}
@@ -0,0 +1,40 @@
+package bookapp.bookappback.common.ranking;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKTest {
+
+    @Test
+    @DisplayName("상위 K - 점수 내림차순, 동점은 id 오름차순")
+    void drainIds_returnsDescendingWithIdTieBreak() {
+        TopK topK = new TopK(3);
+        topK.offer(5L, 0.1);
+        topK.offer(4L, 0.9);
+        topK.offer(3L, 0.5);
+        topK.offer(2L, 0.5);
+        topK.offer(1L, 0.05);
+
+        assertArrayEquals(new long[]{4L, 2L, 3L}, topK.drainIds());
+        assertEquals(0, topK.size());
+    }
+
+    @Test
+    @DisplayName("후보가 K 보다 적으면 전부 반환, drain 은 점수도 함께 전달")
+    void drain_fewerThanK() {
+        TopK topK = new TopK(10);
+        topK.offer(7L, 2.0);
+        topK.offer(8L, 3.0);
+        assertEquals(Double.NEGATIVE_INFINITY, topK.threshold());
+
+        List<String> visited = new ArrayList<>();
+        topK.drain((id, score) -> visited.add(id + ":" + score));
+
+        assertEquals(List.of("8:3.0", "7:2.0"), visited);
+    }
+}
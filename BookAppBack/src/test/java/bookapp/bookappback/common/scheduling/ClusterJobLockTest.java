@@ -0,0 +1,108 @@
+package bookapp.bookappback.common.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ClusterJobLockTest {
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ClusterJobLock lock = new ClusterJobLock(redisTemplate, meterRegistry, true);
+
+    @AfterEach
+    void tearDown() {
+        lock.destroy();
+    }
+
+    @Test
+    @DisplayName("잡 락 - 획득하면 fencing token 을 받고 보유 지표가 1, 닫으면 토큰 비교 해제 후 0")
+    void acquireAndRelease() {
+        when(redisTemplate.execute(eq(ClusterJobLock.ACQUIRE), eq(List.of("scheduler-lock:job", "scheduler-lock:job:fence")), any(), any()))
+                .thenReturn(7L, 0L);
+
+        Optional<ClusterJobLock.Lease> first = lock.tryAcquire("job", Duration.ofMinutes(1));
+        assertTrue(first.isPresent());
+        assertEquals(7L, first.get().fencingToken());
+        assertEquals(1.0, meterRegistry.get("scheduler.lock.held").tag("job", "job").gauge().value());
+
+        assertTrue(lock.tryAcquire("job", Duration.ofMinutes(1)).isEmpty(), "다른 인스턴스가 보유 중");
+
+        first.get().close();
+        verify(redisTemplate).execute(eq(ClusterJobLock.RELEASE), eq(List.of("scheduler-lock:job")), any());
+        assertEquals(0.0, meterRegistry.get("scheduler.lock.held").tag("job", "job").gauge().value());
+        assertEquals(1.0, meterRegistry.get("scheduler.lock.acquire").tags("job", "job", "result", "busy").counter().count());
+    }
+
+    @Test
+    @DisplayName("잡 락 - 연장에 실패하면 lease 를 잃은 것으로 보고, 작업은 checkHeld 에서 멈춘다")
+    void lostLeaseStopsTask() {
+        when(redisTemplate.execute(eq(ClusterJobLock.ACQUIRE), anyList(), any(), any())).thenReturn(3L);
+        when(redisTemplate.execute(eq(ClusterJobLock.RENEW), anyList(), any(), any())).thenReturn(0L);
+        AtomicBoolean reachedEnd = new AtomicBoolean();
+
+        boolean ran = lock.runExclusive("job", Duration.ofMillis(30), lease -> {
+            for (int i = 0; i < 100 && lease.isHeld(); i++) {
+                sleep(10);
+            }
+            lease.checkHeld();
+            reachedEnd.set(true);
+        });
+
+        assertTrue(ran);
+        assertFalse(reachedEnd.get());
+        assertEquals(1.0, meterRegistry.get("scheduler.lock.lost").tag("job", "job").counter().count());
+        verify(redisTemplate, never()).execute(eq(ClusterJobLock.RELEASE), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("잡 락 - Redis 오류면 실행하지 않는다")
+    void redisErrorSkipsRun() {
+        when(redisTemplate.execute(eq(ClusterJobLock.ACQUIRE), anyList(), any(), any()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertFalse(lock.runExclusive("job", Duration.ofMinutes(1), lease -> fail("실행되면 안 됨")));
+        assertEquals(1.0, meterRegistry.get("scheduler.lock.acquire").tags("job", "job", "result", "error").counter().count());
+    }
+
+    @Test
+    @DisplayName("잡 락 - 끈 상태의 로컬 lease 도 시각 기반으로 계속 커지는 fencing token 을 받는다")
+    void localLeaseTokensIncrease() {
+        ClusterJobLock local = new ClusterJobLock(redisTemplate, meterRegistry, false);
+        long before = System.currentTimeMillis() * 1_000;
+
+        long first;
+        try (ClusterJobLock.Lease lease = local.tryAcquire("job", Duration.ofMinutes(1)).orElseThrow()) {
+            first = lease.fencingToken();
+        }
+        long second;
+        try (ClusterJobLock.Lease lease = local.tryAcquire("job", Duration.ofMinutes(1)).orElseThrow()) {
+            second = lease.fencingToken();
+        }
+        local.destroy();
+
+        assertTrue(first >= before, "재기동 전에 기록된 토큰보다 작아지지 않는다");
+        assertTrue(second > first);
+        verifyNoInteractions(redisTemplate);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
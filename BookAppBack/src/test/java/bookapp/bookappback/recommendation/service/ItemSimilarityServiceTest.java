@@ -0,0 +1,99 @@
+package bookapp.bookappback.recommendation.service;
+
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.common.scheduling.ClusterJobLock;
+import bookapp.bookappback.recommendation.repository.BookSimilarityRepository;
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ItemSimilarityServiceTest {
+
+    @Mock private BookSimilarityRepository bookSimilarityRepository;
+    @Mock private BookSimilarityWriter bookSimilarityWriter;
+    @Mock private ClusterJobLock.Lease lease;
+
+    private ItemSimilarityService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // 1 = {10: 1.0, 20: 0.5}, 2 = {10: 1.0, 20: 1.0, 30: 1.0}, 3 = {10: 0.5, 30: 1.0}
+        // ‖10‖ = 2.5, ‖20‖ = 1.5, ‖30‖ = 2.0
+        UserBookInteractionIndex index =
+                new UserBookInteractionIndex(mock(UserBookStatusRepository.class), new KeysetScanner(mock(EntityManager.class)));
+        index.put(1L, 10L, ReadingStatus.COMPLETED);
+        index.put(1L, 20L, ReadingStatus.TO_READ);
+        index.put(2L, 10L, ReadingStatus.COMPLETED);
+        index.put(2L, 20L, ReadingStatus.READING);
+        index.put(2L, 30L, ReadingStatus.COMPLETED);
+        index.put(3L, 10L, ReadingStatus.TO_READ);
+        index.put(3L, 30L, ReadingStatus.COMPLETED);
+
+        when(bookSimilarityWriter.replaceAll(anyList(), any())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        service = new ItemSimilarityService(index, bookSimilarityRepository, bookSimilarityWriter);
+    }
+
+    @Test
+    @DisplayName("Weighted Jaccard - Σmin / (‖b‖ + ‖c‖ − Σmin), 자기 자신 쌍은 제외")
+    void rebuildModel_weightedJaccardScores() {
+        ReflectionTestUtils.setField(service, "neighborsPerBook", 20);
+
+        int saved = service.rebuildModel(lease);
+
+        Map<String, Double> scores = captureScores();
+        assertEquals(6, saved);
+        assertEquals(6, scores.size());
+        // (10, 20): Σmin = 0.5 + 1.0 = 1.5 → 1.5 / (2.5 + 1.5 − 1.5)
+        assertEquals(0.6, scores.get("10->20"), 1e-9);
+        assertEquals(0.6, scores.get("20->10"), 1e-9);
+        // (10, 30): Σmin = 1.0 + 0.5 = 1.5 → 1.5 / (2.5 + 2.0 − 1.5)
+        assertEquals(0.5, scores.get("10->30"), 1e-9);
+        assertEquals(0.5, scores.get("30->10"), 1e-9);
+        // (20, 30): Σmin = 1.0 → 1.0 / (1.5 + 2.0 − 1.0)
+        assertEquals(0.4, scores.get("20->30"), 1e-9);
+        assertEquals(0.4, scores.get("30->20"), 1e-9);
+        assertFalse(scores.containsKey("10->10") || scores.containsKey("20->20") || scores.containsKey("30->30"));
+    }
+
+    @Test
+    @DisplayName("이웃 수 상한 - 도서별 상위 N개만 저장")
+    void rebuildModel_keepsTopNeighborsPerBook() {
+        ReflectionTestUtils.setField(service, "neighborsPerBook", 1);
+
+        int saved = service.rebuildModel(lease);
+
+        Map<String, Double> scores = captureScores();
+        assertEquals(3, saved);
+        assertEquals(Map.of("10->20", 0.6, "20->10", 0.6, "30->10", 0.5).keySet(), scores.keySet());
+        assertEquals(0.5, scores.get("30->10"), 1e-9);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Double> captureScores() {
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(bookSimilarityWriter).replaceAll(rows.capture(), same(lease));
+        Map<String, Double> scores = new HashMap<>();
+        for (Object[] row : rows.getValue()) {
+            scores.put(row[0] + "->" + row[1], ((Number) row[2]).doubleValue());
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,142 @@
+package bookapp.bookappback.recommendation.service;
+
+import bookapp.bookappback.ai.service.AiRecommendationService;
+import bookapp.bookappback.book.repository.BookRepository;
+import bookapp.bookappback.book.service.BookIdResolver;
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.recommendation.dto.RecommendationResponse;
+import bookapp.bookappback.recommendation.entity.BookSimilarity;
+import bookapp.bookappback.recommendation.repository.BookSimilarityRepository;
+import bookapp.bookappback.user.entity.User;
+import bookapp.bookappback.user.repository.UserRepository;
+import bookapp.bookappback.user.service.UserAgeGroupCache;
+import bookapp.bookappback.userbookstatus.dto.UserBookIsbnDto;
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex;
+import bookapp.bookappback.userbookstatus.service.UserBookStatusService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RecommendationServiceTest {
+
+    private static final String EMAIL = "reader@test.com";
+
+    @Mock private UserBookStatusService userBookStatusService;
+    @Mock private AiRecommendationService aiRecommendationService;
+    @Mock private UserRepository userRepository;
+    @Mock private UserAgeGroupCache userAgeGroupCache;
+    @Mock private BookRepository bookRepository;
+    @Mock private BookIdResolver bookIdResolver;
+    @Mock private BookSimilarityRepository bookSimilarityRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private UserBookInteractionIndex index;
+    private RecommendationService service;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        // 적재 없이 put 으로만 채운 인덱스:
+        // 1 = {10, 20}, 2 = {10, 20, 30} (이웃), 3 = {20, 40(TO_READ)} (약한 이웃), 4 = {50, 60(TO_READ)} (인기 보충용)
+        index = spy(new UserBookInteractionIndex(mock(UserBookStatusRepository.class), new KeysetScanner(mock(EntityManager.class))));
+        index.put(1L, 10L, ReadingStatus.COMPLETED);
+        index.put(1L, 20L, ReadingStatus.COMPLETED);
+        index.put(2L, 10L, ReadingStatus.COMPLETED);
+        index.put(2L, 20L, ReadingStatus.COMPLETED);
+        index.put(2L, 30L, ReadingStatus.COMPLETED);
+        index.put(3L, 20L, ReadingStatus.COMPLETED);
+        index.put(3L, 40L, ReadingStatus.TO_READ);
+        index.put(4L, 50L, ReadingStatus.COMPLETED);
+        index.put(4L, 60L, ReadingStatus.TO_READ);
+
+        User user = new User();
+        user.setId(1L);
+        user.setEmail(EMAIL);
+        when(userRepository.findByEmail(EMAIL)).thenReturn(Optional.of(user));
+        when(userBookStatusService.getUserBooksWithIsbn(1L))
+                .thenReturn(List.of(new UserBookIsbnDto("isbn-10", "COMPLETED"), new UserBookIsbnDto("isbn-20", "COMPLETED")));
+        when(userAgeGroupCache.ageGroupOf(anyLong())).thenReturn(-1);
+
+        service = new RecommendationService(userBookStatusService, index, aiRecommendationService, userRepository,
+                userAgeGroupCache, bookRepository, bookIdResolver, bookSimilarityRepository, meterRegistry,
+                new ConcurrentMapCacheManager("recommendationCache"));
+        ReflectionTestUtils.setField(service, "cfMode", "user");
+        ReflectionTestUtils.setField(service, "latencyBudgetMs", 100L);
+    }
+
+    @Test
+    @DisplayName("지연 예산 - Content 분기가 예산을 넘기면 끊고 CF 결과 + 인기 도서로 응답")
+    void recommend_slowContentBranch_cutAtBudget() {
+        when(aiRecommendationService.getContentRecommendationsAsync(anyList(), anyInt()))
+                .thenReturn(Mono.delay(Duration.ofSeconds(5)).thenReturn(List.of("isbn-70")));
+
+        long start = System.nanoTime();
+        RecommendationResponse response = service.getRecommendations(EMAIL);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 2_000, "예산에서 끊겨야 함: " + elapsedMs + "ms");
+        assertEquals("personalized", response.getType());
+        assertEquals(List.of(30L, 40L, 50L, 60L), response.getBookIds());
+        assertEquals(1.0, meterRegistry.counter("recommendation.branch.timeout", "branch", "content").count());
+        verify(bookIdResolver, never()).resolveIds(any());
+    }
+
+    @Test
+    @DisplayName("폴백 - Content 분기가 실패하면 CF 결과 + 인기 도서로 응답")
+    void recommend_contentBranchError_fallsBackToCf() {
+        when(aiRecommendationService.getContentRecommendationsAsync(anyList(), anyInt()))
+                .thenReturn(Mono.error(new IllegalStateException("FastAPI down")));
+
+        RecommendationResponse response = service.getRecommendations(EMAIL);
+
+        assertEquals("personalized", response.getType());
+        assertEquals(List.of(30L, 40L, 50L, 60L), response.getBookIds());
+        assertEquals(1.0, meterRegistry.counter("recommendation.branch.error", "branch", "content").count());
+        verify(bookIdResolver, never()).resolveIds(any());
+    }
+
+    @Test
+    @DisplayName("item 모드 - 유저 역색인 대신 book_similarity 이웃으로 점수를 매긴다")
+    void recommend_itemMode_readsBookSimilarity() {
+        ReflectionTestUtils.setField(service, "cfMode", "item");
+        when(aiRecommendationService.getContentRecommendationsAsync(anyList(), anyInt()))
+                .thenReturn(Mono.just(List.of()));
+        when(bookSimilarityRepository.findByBookIdIn(anyCollection())).thenReturn(List.of(
+                similarity(10L, 70L, 0.9),
+                similarity(20L, 80L, 0.5),
+                similarity(10L, 20L, 0.7))); // 이미 가진 책은 제외
+
+        RecommendationResponse response = service.getRecommendations(EMAIL);
+
+        assertEquals(List.of(70L, 80L), response.getBookIds().subList(0, 2));
+        assertFalse(response.getBookIds().contains(20L));
+        verify(bookSimilarityRepository).findByBookIdIn(List.of(10L, 20L));
+        verify(index, never()).scoreNeighbors(anyLong());
+    }
+
+    private static BookSimilarity similarity(long bookId, long neighborBookId, double score) {
+        BookSimilarity similarity = mock(BookSimilarity.class);
+        when(similarity.getBookId()).thenReturn(bookId);
+        when(similarity.getNeighborBookId()).thenReturn(neighborBookId);
+        when(similarity.getScore()).thenReturn(score);
+        return similarity;
+    }
+}
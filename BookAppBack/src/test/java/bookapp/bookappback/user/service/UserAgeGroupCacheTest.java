@@ -0,0 +1,89 @@
+package bookapp.bookappback.user.service;
+
+import bookapp.bookappback.user.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class UserAgeGroupCacheTest {
+
+    private static final long OVERFLOW_ID = 1L << 30;
+
+    @Mock private UserRepository userRepository;
+
+    private UserAgeGroupCache cache;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(userRepository.findAllBirthYears()).thenReturn(List.of(
+                new Object[]{1L, 1995},
+                new Object[]{5_000L, 2005},       // 초기 배열(1024) 밖 → 배열 확장
+                new Object[]{OVERFLOW_ID, 1980})); // 밀집 범위 밖 → 보조 Map
+        cache = new UserAgeGroupCache(userRepository);
+        cache.reload();
+    }
+
+    @Test
+    @DisplayName("조회 - 출생연도로 나이대를 계산하고, 모르는 유저는 -1")
+    void ageGroupOf_loadedUsers() {
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1995), cache.ageGroupOf(1L));
+        assertEquals(UserAgeGroupCache.calcAgeGroup(2005), cache.ageGroupOf(5_000L));
+        assertEquals(-1, cache.ageGroupOf(2L));
+        assertEquals(-1, cache.ageGroupOf(1_000_000L));
+    }
+
+    @Test
+    @DisplayName("등록 - 새 유저 추가, 출생연도 변경, null 이면 삭제")
+    void register_updatesAndClears() {
+        cache.register(2_000_000L, 1970);
+        cache.register(1L, 2010);
+
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1970), cache.ageGroupOf(2_000_000L));
+        assertEquals(UserAgeGroupCache.calcAgeGroup(2010), cache.ageGroupOf(1L));
+
+        cache.register(1L, null);
+        cache.register(null, 1990);
+        assertEquals(-1, cache.ageGroupOf(1L));
+    }
+
+    @Test
+    @DisplayName("보조 Map - 밀집 범위 밖/음수 id 도 적재·등록·삭제된다")
+    void overflow_outOfDenseRange() {
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1980), cache.ageGroupOf(OVERFLOW_ID));
+
+        cache.register(-3L, 1960);
+        cache.register(OVERFLOW_ID + 1, 2000);
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1960), cache.ageGroupOf(-3L));
+        assertEquals(UserAgeGroupCache.calcAgeGroup(2000), cache.ageGroupOf(OVERFLOW_ID + 1));
+
+        cache.register(OVERFLOW_ID, null);
+        assertEquals(-1, cache.ageGroupOf(OVERFLOW_ID));
+    }
+
+    @Test
+    @DisplayName("재적재 - 조회와 교체 사이에 들어온 등록은 새 테이블에 다시 적용된다")
+    void reload_keepsRegistrationsMadeDuringReload() {
+        when(userRepository.findAllBirthYears()).thenAnswer(inv -> {
+            // 스냅샷을 읽은 뒤 들어온 가입/프로필 수정
+            cache.register(7L, 1990);
+            cache.register(OVERFLOW_ID + 2, 1985);
+            cache.register(1L, null);
+            return List.<Object[]>of(new Object[]{1L, 1995});
+        });
+
+        cache.reload();
+
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1990), cache.ageGroupOf(7L));
+        assertEquals(UserAgeGroupCache.calcAgeGroup(1985), cache.ageGroupOf(OVERFLOW_ID + 2));
+        assertEquals(-1, cache.ageGroupOf(1L));
+        assertEquals(-1, cache.ageGroupOf(5_000L));
+    }
+}
@@ -30,6 +30,9 @@ class UserServiceTest {
     @Mock
     private JwtUtil jwtUtil;
 
+    @Mock
+    private UserAgeGroupCache userAgeGroupCache;
+
     @InjectMocks
     private UserService userService;
 
@@ -0,0 +1,148 @@
+package bookapp.bookappback.userbookstatus.service;
+
+import bookapp.bookappback.common.jpa.KeysetScanner;
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
+import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
+import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Neighbors;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Popularity;
+import bookapp.bookappback.userbookstatus.service.UserBookInteractionIndex.Row;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class UserBookInteractionIndexTest {
+
+    @Mock private UserBookStatusRepository userBookStatusRepository;
+
+    private UserBookInteractionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        List<UserBookInteractionRow> rows = List.of(
+                new UserBookInteractionRow(1L, 1L, 30L, ReadingStatus.COMPLETED),
+                new UserBookInteractionRow(2L, 1L, 10L, ReadingStatus.TO_READ),
+                new UserBookInteractionRow(3L, 2L, 10L, ReadingStatus.READING));
+        when(userBookStatusRepository.findInteractionsAfter(anyLong(), anyCollection(), any(Limit.class)))
+                .thenAnswer(inv -> {
+                    long afterId = inv.getArgument(0);
+                    int max = inv.<Limit>getArgument(2).max();
+                    return rows.stream().filter(r -> r.id() > afterId).limit(max).toList();
+                });
+
+        index = new UserBookInteractionIndex(userBookStatusRepository, new KeysetScanner(mock(EntityManager.class)));
+        index.rebuild();
+    }
+
+    @Test
+    @DisplayName("적재 - bookId 오름차순 정렬 및 상태별 가중치")
+    void rebuild_loadsSortedWeightedRows() {
+        Row row = index.getRow(1L);
+
+        assertEquals(2, row.size());
+        assertEquals(10L, row.bookIdAt(0));
+        assertEquals(30L, row.bookIdAt(1));
+        assertEquals(0.5f, row.weight(10L));
+        assertEquals(1.0f, row.weight(30L));
+        assertEquals(1.5, row.norm(), 1e-9);
+        assertEquals(2, index.userCount());
+    }
+
+    @Test
+    @DisplayName("적재 - 큰 bookId 가 섞여도 bookId 오름차순과 가중치 짝을 유지")
+    void rebuild_sortsLargeBookIds() {
+        List<UserBookInteractionRow> rows = List.of(
+                new UserBookInteractionRow(1L, 9L, Long.MAX_VALUE, ReadingStatus.TO_READ),
+                new UserBookInteractionRow(2L, 9L, 40L, ReadingStatus.COMPLETED),
+                new UserBookInteractionRow(3L, 9L, 5L, ReadingStatus.TO_READ),
+                new UserBookInteractionRow(4L, 8L, 1L << 40, ReadingStatus.TO_READ),
+                new UserBookInteractionRow(5L, 8L, 7L, ReadingStatus.READING));
+        when(userBookStatusRepository.findInteractionsAfter(anyLong(), anyCollection(), any(Limit.class)))
+                .thenAnswer(inv -> {
+                    long afterId = inv.getArgument(0);
+                    return rows.stream().filter(r -> r.id() > afterId).toList();
+                });
+        index.rebuild();
+
+        Row fallback = index.getRow(9L);
+        assertEquals(5L, fallback.bookIdAt(0));
+        assertEquals(40L, fallback.bookIdAt(1));
+        assertEquals(Long.MAX_VALUE, fallback.bookIdAt(2));
+        assertEquals(1.0f, fallback.weight(40L));
+        assertEquals(0.5f, fallback.weight(Long.MAX_VALUE));
+
+        Row packed = index.getRow(8L);
+        assertEquals(7L, packed.bookIdAt(0));
+        assertEquals(1L << 40, packed.bookIdAt(1));
+        assertEquals(1.0f, packed.weight(7L));
+        assertEquals(0.5f, packed.weight(1L << 40));
+    }
+
+    @Test
+    @DisplayName("상태 변경 - 전체 재조회 없이 Row 만 패치")
+    void put_patchesRowWithoutRescan() {
+        index.put(1L, 20L, ReadingStatus.READING);
+        index.put(1L, 10L, ReadingStatus.COMPLETED);
+        index.put(3L, 40L, ReadingStatus.TO_READ);
+
+        Row row = index.getRow(1L);
+        assertEquals(3, row.size());
+        assertEquals(20L, row.bookIdAt(1));
+        assertEquals(1.0f, row.weight(10L));
+        assertTrue(index.getRow(3L).contains(40L));
+        verify(userBookStatusRepository, times(1)).findInteractionsAfter(anyLong(), anyCollection(), any(Limit.class));
+    }
+
+    @Test
+    @DisplayName("이웃 점수 - 책을 공유하는 유저만, Weighted Jaccard 값으로")
+    void scoreNeighbors_onlyUsersSharingBooks() {
+        index.put(2L, 30L, ReadingStatus.TO_READ);
+        index.put(3L, 99L, ReadingStatus.COMPLETED); // 공유 도서 없음
+
+        Neighbors neighbors = index.scoreNeighbors(1L);
+
+        assertEquals(1, neighbors.size());
+        assertEquals(2L, neighbors.userIdAt(0));
+        // user1 = {10:0.5, 30:1.0}, user2 = {10:1.0, 30:0.5} → Σmin=1.0, Σmax=2.0
+        assertEquals(0.5, neighbors.similarityAt(0), 1e-9);
+    }
+
+    @Test
+    @DisplayName("제거 - 마지막 책이 빠지면 유저 Row 도 제거")
+    void remove_dropsEmptyRow() {
+        index.remove(2L, 10L);
+
+        assertTrue(index.getRow(2L).isEmpty());
+        assertEquals(1, index.userCount());
+        assertEquals(0, index.scoreNeighbors(1L).size());
+    }
+
+    @Test
+    @DisplayName("인기 순위표 - 상태 변경이 즉시 반영되고 제외 목록은 건너뜀")
+    void topBooks_followsUpdatesAndSkipsExcluded() {
+        assertEquals(List.of(10L, 30L), index.topBooks(Popularity.WEIGHTED, 10, Set.of()));
+        assertEquals(List.of(30L), index.topBooks(Popularity.WEIGHTED, 10, Set.of(10L)));
+
+        index.put(2L, 30L, ReadingStatus.COMPLETED);
+
+        assertEquals(List.of(30L, 10L), index.topBooks(Popularity.READERS, 10, Set.of()));
+        assertEquals(List.of(30L), index.topBooks(Popularity.READERS, 1, Set.of()));
+
+        index.remove(2L, 30L);
+        index.remove(1L, 30L);
+
+        assertEquals(List.of(10L), index.topBooks(Popularity.WEIGHTED, 10, Set.of()));
+    }
+}
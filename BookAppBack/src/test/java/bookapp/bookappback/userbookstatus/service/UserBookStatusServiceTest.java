@@ -4,22 +4,28 @@ import bookapp.bookappback.book.entity.Book;
 import bookapp.bookappback.book.repository.BookRepository;
 import bookapp.bookappback.common.exception.BookExceptions;
 import bookapp.bookappback.common.exception.UserExceptions;
+import bookapp.bookappback.common.jpa.KeysetScanner;
 import bookapp.bookappback.user.entity.User;
 import bookapp.bookappback.user.repository.UserRepository;
+import bookapp.bookappback.userbookstatus.dto.UserBookInteractionRow;
 import bookapp.bookappback.userbookstatus.dto.UserLibraryResponse;
 import bookapp.bookappback.userbookstatus.entity.ReadingStatus;
 import bookapp.bookappback.userbookstatus.entity.UserBookStatus;
 import bookapp.bookappback.userbookstatus.repository.UserBookStatusRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -29,6 +35,9 @@ class UserBookStatusServiceTest {
     @Mock private UserBookStatusRepository userBookStatusRepository;
     @Mock private UserRepository userRepository;
     @Mock private BookRepository bookRepository;
+    @Mock private UserBookInteractionIndex interactionIndex;
+
+    @Spy private KeysetScanner keysetScanner = new KeysetScanner(mock(EntityManager.class));
 
     @InjectMocks
     private UserBookStatusService userBookStatusService;
@@ -60,6 +69,7 @@ class UserBookStatusServiceTest {
 
         assertEquals(ReadingStatus.READING, result.getStatus());
         verify(userBookStatusRepository, times(1)).save(any(UserBookStatus.class));
+        verify(interactionIndex, times(1)).put(1L, 100L, ReadingStatus.READING);
     }
 
     @Test
@@ -95,11 +105,18 @@ class UserBookStatusServiceTest {
         User user2 = new User("u2@test.com", "encoded", "u2", null);
         user2.setId(2L);
 
-        UserBookStatus s1 = buildStatus(user1, buildBook(1L, "책1"), ReadingStatus.READING);
-        UserBookStatus s2 = buildStatus(user1, buildBook(2L, "책2"), ReadingStatus.COMPLETED);
-        UserBookStatus s3 = buildStatus(user2, buildBook(3L, "책3"), ReadingStatus.TO_READ); // should be ignored
-
-        when(userBookStatusRepository.findAll()).thenReturn(List.of(s1, s2, s3));
+        UserBookInteractionRow s1 = new UserBookInteractionRow(10L, user1.getId(), 1L, ReadingStatus.READING);
+        UserBookInteractionRow s2 = new UserBookInteractionRow(11L, user1.getId(), 2L, ReadingStatus.COMPLETED);
+        UserBookInteractionRow s3 = new UserBookInteractionRow(12L, user2.getId(), 3L, ReadingStatus.TO_READ); // should be ignored
+
+        // 쿼리가 READING/COMPLETED 만 돌려주는지(상태 조건)는 statuses 인자로 확인
+        when(userBookStatusRepository.findInteractionsAfter(anyLong(), any(), any())).thenAnswer(inv -> {
+            Collection<ReadingStatus> statuses = inv.getArgument(1);
+            long afterId = inv.getArgument(0);
+            return Stream.of(s1, s2, s3)
+                    .filter(row -> row.id() > afterId && statuses.contains(row.status()))
+                    .toList();
+        });
 
         Map<Long, List<Long>> result = userBookStatusService.getAllUserLibraries();
 
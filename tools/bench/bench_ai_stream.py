@@ -0,0 +1,77 @@
+#!/usr/bin/env python3
+"""
+AI 검색 스트리밍 체감 지연 측정 (외부 의존성 없음).
+
+ - buffered: POST /api/ai/search          → 전체 응답 수신 시간
+ - stream:   POST /api/ai/search/stream   → 첫 줄(candidates) 수신 시간 / 마지막 줄(final) 수신 시간
+
+캐시 효과를 빼려면 매 실행마다 다른 검색어를 쓰거나 Redis 를 비운 뒤 측정합니다.
+
+예)
+  python3 tools/bench/bench_ai_stream.py --query "스릴러 소설 추천해줘" -n 10
+"""
+
+from __future__ import annotations
+
+import argparse
+import json
+import statistics
+import time
+import urllib.request
+
+
+def post(url: str, query: str) -> urllib.request.Request:
+    body = json.dumps({"query": query}).encode("utf-8")
+    return urllib.request.Request(url, data=body, method="POST", headers={"Content-Type": "application/json"})
+
+
+def buffered(base: str, query: str, timeout: float) -> float:
+    start = time.perf_counter()
+    with urllib.request.urlopen(post(f"{base}/api/ai/search", query), timeout=timeout) as resp:
+        resp.read()
+    return (time.perf_counter() - start) * 1000.0
+
+
+def streamed(base: str, query: str, timeout: float) -> tuple[float, float]:
+    start = time.perf_counter()
+    first_ms = float("nan")
+    with urllib.request.urlopen(post(f"{base}/api/ai/search/stream", query), timeout=timeout) as resp:
+        for line in resp:
+            if not line.strip():
+                continue
+            if first_ms != first_ms:  # NaN → 첫 줄
+                first_ms = (time.perf_counter() - start) * 1000.0
+    return first_ms, (time.perf_counter() - start) * 1000.0
+
+
+def describe(label: str, values: list[float]) -> None:
+    values = sorted(values)
+    p95 = values[min(len(values) - 1, int(round(0.95 * (len(values) - 1))))]
+    print(f"  {label:<18} avg={statistics.mean(values):8.1f}ms p50={statistics.median(values):8.1f}ms p95={p95:8.1f}ms")
+
+
+def main() -> None:
+    p = argparse.ArgumentParser()
+    p.add_argument("--query", required=True)
+    p.add_argument("-n", "--requests", type=int, default=10)
+    p.add_argument("--base", default="http://localhost:8080")
+    p.add_argument("--timeout", type=float, default=60.0)
+    p.add_argument("--distinct", action="store_true", help="요청마다 검색어 뒤에 번호를 붙여 캐시 적중을 피한다")
+    args = p.parse_args()
+
+    totals, firsts, finals = [], [], []
+    for i in range(args.requests):
+        q = f"{args.query} {i}" if args.distinct else args.query
+        totals.append(buffered(args.base, q + (" b" if args.distinct else ""), args.timeout))
+        first_ms, final_ms = streamed(args.base, q + (" s" if args.distinct else ""), args.timeout)
+        firsts.append(first_ms)
+        finals.append(final_ms)
+
+    print(f"[ai-search] n={args.requests} distinct={args.distinct}")
+    describe("buffered total", totals)
+    describe("stream first line", firsts)
+    describe("stream final", finals)
+
+
+if __name__ == "__main__":
+    main()
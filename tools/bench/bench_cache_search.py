@@ -8,6 +8,9 @@
 
 예)
   python tools/bench/bench_cache_search.py --query "미움받을용기" -n 80 -c 10 --runs 3
+
+검색어 정규화 효과(표기만 다른 변형 검색어 → 캐시 키 수):
+  python tools/bench/bench_cache_search.py --query "미움받을 용기" --variants
 """
 
 from __future__ import annotations
@@ -17,6 +20,9 @@ import re
 import statistics
 import subprocess
 import sys
+import unicodedata
+import urllib.parse
+import urllib.request
 from dataclasses import dataclass
 
 
@@ -54,6 +60,53 @@ def redis_flushall() -> None:
     _ = sh(["docker", "exec", "readonme-redis", "redis-cli", "FLUSHALL"])
 
 
+def redis_count_keys(pattern: str) -> int:
+    raw = sh(["docker", "exec", "readonme-redis", "redis-cli", "--scan", "--pattern", pattern])
+    return len([line for line in raw.splitlines() if line.strip()])
+
+
+def normalize_query(q: str) -> str:
+    """SearchQueryNormalizer.normalizeText 와 같은 규칙 (NFC + 공백 접기 + 소문자)."""
+    composed = unicodedata.normalize("NFC", q)
+    return re.sub(r"[\s\u00a0\u3000]+", " ", composed).strip().lower()
+
+
+def query_variants(q: str) -> list[str]:
+    """사용자 입력에서 흔한 표기 차이 (앞뒤/연속 공백, 전각 공백, 자모 분리, 대소문자)."""
+    variants = [
+        q,
+        f" {q}",
+        f"{q} ",
+        q.replace(" ", "  "),
+        q.replace(" ", "\u3000"),
+        unicodedata.normalize("NFD", q),
+        q.upper(),
+        q.title(),
+    ]
+    return list(dict.fromkeys(variants))
+
+
+def run_variants(base: str, query: str, size: int, repeat: int) -> None:
+    variants = query_variants(query)
+    redis_flushall()
+    requests = 0
+    for _ in range(repeat):
+        for v in variants:
+            url = f"{base}/api/books/search?" + urllib.parse.urlencode({"query": v, "size": size})
+            with urllib.request.urlopen(url, timeout=10) as resp:
+                resp.read()
+            requests += 1
+
+    # 캐시 키 1개 = Kakao 호출 1회 (미스 시에만 키가 생긴다)
+    keys = redis_count_keys("bookSearchCache::*")
+    raw_distinct = len(set(variants))
+    normalized_distinct = len({normalize_query(v) for v in variants})
+    hit_rate = (1 - keys / requests) * 100.0 if requests else float("nan")
+    print(f"[variants] variants={len(variants)} repeat={repeat} requests={requests}")
+    print(f"  expected_keys raw={raw_distinct} normalized={normalized_distinct}")
+    print(f"  observed_keys={keys} upstream_calls={keys} cache_hit_rate={hit_rate:.1f}%")
+
+
 def run_bench(url: str, n: int, c: int) -> BenchRun:
     out = sh([sys.executable, "tools/bench/bench_http.py", "--url", url, "-n", str(n), "-c", str(c), "--warmup", "0"])
     m1 = LAT_RE.search(out)
@@ -79,8 +132,14 @@ def main() -> None:
     p.add_argument("--runs", type=int, default=3)
     p.add_argument("--size", type=int, default=10)
     p.add_argument("--base", default="http://localhost:8080")
+    p.add_argument("--variants", action="store_true", help="표기 변형 검색어로 캐시 키 수/히트율만 측정")
+    p.add_argument("--variant-repeat", type=int, default=3)
     args = p.parse_args()
 
+    if args.variants:
+        run_variants(args.base, args.query, args.size, args.variant_repeat)
+        return
+
     url = f"{args.base}/api/books/search?query={args.query}&size={args.size}"
 
     # Cold: 매 회 FLUSHALL로 "캐시 미스" 조건을 고정 (runs 번 반복)